@@ -0,0 +1,314 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.concurrent;
+
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import org.flcit.commons.core.exception.AggregateException;
+import org.flcit.commons.core.util.ArrayUtils;
+
+/**
+ * Batch processing where fetching and processing overlap: batches are fetched in a loop
+ * (the next one while the previous ones are processing) into a bounded queue,
+ * which blocks the fetch when full, and dispatched to the processor with at most
+ * {@code maxInFlight} batches processing at the same time.
+ * <p>As {@link org.flcit.commons.core.util.FunctionUtils#list(int, IntFunction, Function)},
+ * the fetch ends on the first empty batch or the first batch smaller than the size (unless size is -1).
+ * It also stops on the first fetch or processing error; the completion is then exceptional
+ * with an {@link AggregateException} holding the errors.
+ * <p>A pipeline runs once.
+ *
+ * @param <T>
+ * @since 
+ * @author Florian Lestic
+ */
+public class BatchPipeline<T> {
+
+    private final int size;
+    private final IntFunction<T[]> supplier;
+    private final Function<T[], ? extends CompletionStage<?>> processor;
+    private final int maxInFlight;
+    private final BlockingQueue<T[]> queue;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private final Stage fetchStage = new Stage();
+    private final Stage processStage = new Stage();
+    private volatile boolean fetchEnded;
+
+    /**
+     * @param size
+     * @param supplier
+     * @param processor asynchronous processing of a batch
+     * @param maxInFlight
+     * @param queueCapacity
+     */
+    public BatchPipeline(int size, IntFunction<T[]> supplier, Function<T[], ? extends CompletionStage<?>> processor, int maxInFlight, int queueCapacity) {
+        if (maxInFlight < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("maxInFlight and queueCapacity must be positive");
+        }
+        this.size = size;
+        this.supplier = supplier;
+        this.processor = processor;
+        this.maxInFlight = maxInFlight;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * @param size
+     * @param supplier
+     * @param consumer synchronous processing of a batch, run on the executor
+     * @param executor
+     * @param maxInFlight
+     * @param queueCapacity
+     */
+    public BatchPipeline(int size, IntFunction<T[]> supplier, Consumer<T[]> consumer, Executor executor, int maxInFlight, int queueCapacity) {
+        this(size, supplier, batch -> CompletableFuture.runAsync(() -> consumer.accept(batch), executor), maxInFlight, queueCapacity);
+    }
+
+    /**
+     * Runs the fetch loop on the current thread and waits for the processing of every batch.
+     * @throws AggregateException if a fetch or a processing failed
+     */
+    public void run() {
+        start();
+        fetch();
+        try {
+            completion.join();
+        } catch (CompletionException e) {
+            throw (AggregateException) e.getCause();
+        }
+    }
+
+    /**
+     * Runs the fetch loop on the executor.
+     * @param executor
+     * @return the completion of the pipeline
+     */
+    public CompletableFuture<Void> start(Executor executor) {
+        start();
+        executor.execute(this::fetch);
+        return completion;
+    }
+
+    private void start() {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("Pipeline already started !");
+        }
+    }
+
+    private void fetch() {
+        try {
+            T[] batch;
+            do {
+                final long start = System.nanoTime();
+                try {
+                    batch = supplier.apply(size);
+                } catch (RuntimeException | Error e) {
+                    fetchStage.failures.increment();
+                    throw e;
+                }
+                if (ArrayUtils.isEmpty(batch)) {
+                    break;
+                }
+                fetchStage.record(batch.length, System.nanoTime() - start);
+                while (errors.isEmpty() && !queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+                    dispatch();
+                }
+                dispatch();
+            } while (errors.isEmpty() && (size == -1 || batch.length == size));
+        } catch (InterruptedException e) {
+            errors.add(e);
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException | Error e) {
+            errors.add(e);
+        } finally {
+            fetchEnded = true;
+            dispatch();
+            checkEnd();
+        }
+    }
+
+    private void dispatch() {
+        while (!queue.isEmpty()) {
+            final int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            final T[] batch = queue.poll();
+            if (batch == null) {
+                inFlight.decrementAndGet();
+                continue;
+            }
+            process(batch);
+        }
+    }
+
+    private void process(T[] batch) {
+        final long start = System.nanoTime();
+        final boolean skip = !errors.isEmpty();
+        CompletionStage<?> stage;
+        try {
+            stage = skip ? CompletableFuture.completedFuture(null) : processor.apply(batch);
+        } catch (RuntimeException | Error e) {
+            final CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            stage = failed;
+        }
+        stage.whenComplete((v, e) -> {
+            if (e != null) {
+                processStage.failures.increment();
+                errors.add(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            } else if (!skip) {
+                processStage.record(batch.length, System.nanoTime() - start);
+            }
+            inFlight.decrementAndGet();
+            dispatch();
+            checkEnd();
+        });
+    }
+
+    private void checkEnd() {
+        if (fetchEnded && inFlight.get() == 0 && queue.isEmpty() && !completion.isDone()) {
+            if (errors.isEmpty()) {
+                completion.complete(null);
+            } else {
+                completion.completeExceptionally(new AggregateException("Batch pipeline failed", new ArrayList<>(errors)));
+            }
+        }
+    }
+
+    /**
+     * @return
+     */
+    public CompletableFuture<Void> completion() {
+        return completion;
+    }
+
+    /**
+     * @return
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return
+     */
+    public int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * @return
+     */
+    public Stage getFetchStage() {
+        return fetchStage;
+    }
+
+    /**
+     * @return
+     */
+    public Stage getProcessStage() {
+        return processStage;
+    }
+
+    /**
+     * Throughput counters of a stage of the pipeline.
+     *
+     * @since 
+     * @author Florian Lestic
+     */
+    public static final class Stage {
+
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder items = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        private Stage() { }
+
+        private void record(int count, long duration) {
+            batches.increment();
+            items.add(count);
+            nanos.add(duration);
+        }
+
+        /**
+         * @return
+         */
+        public long getBatches() {
+            return batches.sum();
+        }
+
+        /**
+         * @return
+         */
+        public long getItems() {
+            return items.sum();
+        }
+
+        /**
+         * @return the cumulated time spent in the stage
+         */
+        public long getNanos() {
+            return nanos.sum();
+        }
+
+        /**
+         * @return
+         */
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        /**
+         * @return the items per second of time spent in the stage
+         */
+        public double getItemsPerSecond() {
+            final long n = nanos.sum();
+            return n == 0 ? 0 : items.sum() * 1_000_000_000d / n;
+        }
+
+        @Override
+        public String toString() {
+            return "Stage [batches=" + getBatches() + ", items=" + getItems() + ", nanos=" + getNanos()
+                + ", failures=" + getFailures() + "]";
+        }
+
+    }
+
+}
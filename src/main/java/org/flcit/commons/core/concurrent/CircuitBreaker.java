@@ -0,0 +1,240 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.flcit.commons.core.exception.CallNotPermittedException;
+
+/**
+ * Circuit breaker shared by the callers of a dependency.
+ * <ul>
+ * <li>CLOSED: calls are permitted, their outcomes are recorded in a sliding window of the last calls;
+ * it opens when the window holds at least {@code minimumCalls} outcomes with a failure rate reaching the threshold.</li>
+ * <li>OPEN: calls are rejected with a {@link CallNotPermittedException} until the open duration elapses.</li>
+ * <li>HALF_OPEN: {@code halfOpenCalls} trial calls are permitted; it closes when they all succeed
+ * and opens again on the first failure.</li>
+ * </ul>
+ * <p>The state and the time it was opened are held in one immutable snapshot, only the thread winning a transition
+ * sets them; outcomes reported after the state they were permitted in has changed (e.g. calls in flight when the
+ * circuit opens) are dropped.
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+public class CircuitBreaker {
+
+    /**
+     * 
+     */
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final boolean[] window;
+    private final AtomicReference<Snapshot> state = new AtomicReference<>(new Snapshot(State.CLOSED, 0, 0));
+    private int index;
+    private int recorded;
+    private int failures;
+
+    /**
+     * @param windowSize number of last calls of the sliding window
+     * @param minimumCalls
+     * @param failureRateThreshold between 0 and 1
+     * @param openDuration
+     * @param unit
+     * @param halfOpenCalls
+     */
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long openDuration, TimeUnit unit, int halfOpenCalls) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || failureRateThreshold <= 0 || failureRateThreshold > 1 || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Invalid circuit breaker configuration");
+        }
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = unit.toNanos(openDuration);
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    /**
+     * @return true if a call is permitted; the caller must then report its outcome
+     */
+    public boolean tryAcquire() {
+        final Snapshot current = state.get();
+        switch (current.state) {
+        case CLOSED:
+            return true;
+        case OPEN:
+            if (System.nanoTime() - current.openedAt < openDurationNanos) {
+                return false;
+            }
+            state.compareAndSet(current, new Snapshot(State.HALF_OPEN, current.openedAt, halfOpenCalls));
+            return tryAcquire();
+        default:
+            return current.halfOpenPermits.getAndUpdate(p -> p > 0 ? p - 1 : p) > 0;
+        }
+    }
+
+    /**
+     * Reports a successful call.
+     */
+    public void onSuccess() {
+        final Snapshot current = state.get();
+        if (current.state == State.HALF_OPEN) {
+            if (current.halfOpenSuccesses.incrementAndGet() >= halfOpenCalls
+                    && state.compareAndSet(current, new Snapshot(State.CLOSED, 0, 0))) {
+                reset();
+            }
+        } else if (current.state == State.CLOSED) {
+            record(current, false);
+        }
+    }
+
+    /**
+     * Reports a failed call.
+     */
+    public void onFailure() {
+        final Snapshot current = state.get();
+        if (current.state == State.HALF_OPEN || (current.state == State.CLOSED && record(current, true))) {
+            open(current);
+        }
+    }
+
+    private synchronized boolean record(Snapshot current, boolean failure) {
+        if (state.get() != current) {
+            return false;
+        }
+        if (recorded == window.length) {
+            if (window[index]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[index] = failure;
+        if (failure) {
+            failures++;
+        }
+        index = (index + 1) % window.length;
+        return recorded >= minimumCalls && failures >= failureRateThreshold * recorded;
+    }
+
+    private void release() {
+        final Snapshot current = state.get();
+        if (current.state == State.HALF_OPEN) {
+            current.halfOpenPermits.incrementAndGet();
+        }
+    }
+
+    private synchronized void reset() {
+        index = 0;
+        recorded = 0;
+        failures = 0;
+    }
+
+    private void open(Snapshot from) {
+        if (state.compareAndSet(from, new Snapshot(State.OPEN, System.nanoTime(), 0))) {
+            reset();
+        }
+    }
+
+    /**
+     * A {@link CallNotPermittedException} thrown by the supplier (e.g. a nested {@link ConcurrencyLimiter})
+     * is not an outcome of the dependency: it is not recorded and gives back the half-open permit.
+     * @param <T>
+     * @param supplier
+     * @return
+     * @throws CallNotPermittedException if the call is not permitted
+     */
+    public <T> T call(Supplier<T> supplier) {
+        if (!tryAcquire()) {
+            throw new CallNotPermittedException("Circuit breaker is " + getState(), getRetryAfterNanos());
+        }
+        final T result;
+        try {
+            result = supplier.get();
+        } catch (CallNotPermittedException e) {
+            release();
+            throw e;
+        } catch (RuntimeException | Error e) {
+            onFailure();
+            throw e;
+        }
+        onSuccess();
+        return result;
+    }
+
+    /**
+     * @param <T>
+     * @param supplier
+     * @return the supplier calling through the circuit breaker
+     */
+    public <T> Supplier<T> decorate(Supplier<T> supplier) {
+        return () -> call(supplier);
+    }
+
+    /**
+     * @param runnable
+     * @return the runnable running through the circuit breaker
+     */
+    public Runnable decorate(Runnable runnable) {
+        return () -> call(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return
+     */
+    public State getState() {
+        return state.get().state;
+    }
+
+    /**
+     * @return the failure rate of the sliding window
+     */
+    public synchronized double getFailureRate() {
+        return recorded == 0 ? 0 : (double) failures / recorded;
+    }
+
+    private long getRetryAfterNanos() {
+        final Snapshot current = state.get();
+        return current.state == State.OPEN ? Math.max(0, openDurationNanos - (System.nanoTime() - current.openedAt)) : 0;
+    }
+
+    private static final class Snapshot {
+
+        private final State state;
+        private final long openedAt;
+        private final AtomicInteger halfOpenPermits;
+        private final AtomicInteger halfOpenSuccesses = new AtomicInteger();
+
+        private Snapshot(State state, long openedAt, int halfOpenPermits) {
+            this.state = state;
+            this.openedAt = openedAt;
+            this.halfOpenPermits = new AtomicInteger(halfOpenPermits);
+        }
+
+    }
+
+}
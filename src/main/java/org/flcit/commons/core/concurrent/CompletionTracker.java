@@ -0,0 +1,166 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.concurrent;
+
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.flcit.commons.core.exception.AggregateException;
+
+/**
+ * Lock free completion accounting of a known number of tasks.
+ * <p>Each task reports {@link #success()} or {@link #failure(Throwable)} once;
+ * the {@link #future()} completes when the last one reports, exceptionally with an
+ * {@link AggregateException} holding every error if at least one task failed.
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+public class CompletionTracker {
+
+    private final int total;
+    private final AtomicInteger remaining;
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    /**
+     * @param total
+     */
+    public CompletionTracker(int total) {
+        this.total = total;
+        this.remaining = new AtomicInteger(total);
+        if (total <= 0) {
+            future.complete(null);
+        }
+    }
+
+    /**
+     * Reports the success of a task.
+     */
+    public void success() {
+        succeeded.increment();
+        countDown();
+    }
+
+    /**
+     * Reports the failure of a task.
+     * @param error
+     */
+    public void failure(Throwable error) {
+        failed.increment();
+        errors.add(error);
+        countDown();
+    }
+
+    private void countDown() {
+        if (remaining.decrementAndGet() != 0) {
+            return;
+        }
+        if (errors.isEmpty()) {
+            future.complete(null);
+        } else {
+            future.completeExceptionally(new AggregateException(failed.sum() + " of " + total + " tasks failed", new ArrayList<>(errors)));
+        }
+    }
+
+    /**
+     * @return
+     */
+    public CompletableFuture<Void> future() {
+        return future;
+    }
+
+    /**
+     * @return
+     */
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * @return
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return
+     */
+    public int getRemaining() {
+        return Math.max(remaining.get(), 0);
+    }
+
+    /**
+     * @return
+     */
+    public long getSucceeded() {
+        return succeeded.sum();
+    }
+
+    /**
+     * @return
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Waits for every task.
+     * @throws AggregateException if at least one task failed
+     */
+    public void await() {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw (AggregateException) e.getCause();
+        }
+    }
+
+    /**
+     * Waits for every task, at most the given time.
+     * @param timeout
+     * @param unit
+     * @return false if the time elapsed before every task reported
+     * @throws AggregateException if at least one task failed
+     */
+    public boolean await(long timeout, TimeUnit unit) {
+        try {
+            future.get(timeout, unit);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            throw (AggregateException) e.getCause();
+        }
+    }
+
+}
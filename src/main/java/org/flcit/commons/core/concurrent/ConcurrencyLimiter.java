@@ -0,0 +1,145 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.flcit.commons.core.exception.CallNotPermittedException;
+
+/**
+ * Adaptive limit of concurrent calls to a dependency (additive increase, multiplicative decrease):
+ * the limit grows by one after a successful call made while at least half of it was in use,
+ * and is multiplied by the backoff ratio after a failed call or a call slower than the latency threshold.
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+public class ConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * @param initialLimit
+     * @param minLimit
+     * @param maxLimit
+     * @param backoffRatio between 0 and 1 exclusive
+     * @param latencyThreshold calls slower than this are handled as failures, 0 to disable
+     * @param unit
+     */
+    public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThreshold, TimeUnit unit) {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Invalid concurrency limiter configuration");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = unit.toNanos(latencyThreshold);
+        this.limit = new AtomicInteger(initialLimit);
+    }
+
+    /**
+     * @return true if a call is permitted; the caller must then {@link #release(boolean, long)}
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Reports the end of a permitted call and adapts the limit.
+     * @param success
+     * @param latencyNanos
+     */
+    public void release(boolean success, long latencyNanos) {
+        final int current = inFlight.getAndDecrement();
+        if (!success || (latencyThresholdNanos > 0 && latencyNanos > latencyThresholdNanos)) {
+            limit.updateAndGet(l -> Math.max(minLimit, (int) (l * backoffRatio)));
+        } else if (current * 2 >= limit.get()) {
+            limit.updateAndGet(l -> Math.min(maxLimit, l + 1));
+        }
+    }
+
+    /**
+     * @param <T>
+     * @param supplier
+     * @return
+     * @throws CallNotPermittedException if the limit is reached
+     */
+    public <T> T call(Supplier<T> supplier) {
+        if (!tryAcquire()) {
+            throw new CallNotPermittedException("Concurrency limit reached: " + limit.get(), 0);
+        }
+        final long start = System.nanoTime();
+        final T result;
+        try {
+            result = supplier.get();
+        } catch (RuntimeException | Error e) {
+            release(false, System.nanoTime() - start);
+            throw e;
+        }
+        release(true, System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * @param <T>
+     * @param supplier
+     * @return the supplier calling through the limiter
+     */
+    public <T> Supplier<T> decorate(Supplier<T> supplier) {
+        return () -> call(supplier);
+    }
+
+    /**
+     * @param runnable
+     * @return the runnable running through the limiter
+     */
+    public Runnable decorate(Runnable runnable) {
+        return () -> call(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return
+     */
+    public int getLimit() {
+        return limit.get();
+    }
+
+    /**
+     * @return
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+}
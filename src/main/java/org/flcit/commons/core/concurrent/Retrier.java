@@ -0,0 +1,140 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.flcit.commons.core.exception.CallNotPermittedException;
+import org.flcit.commons.core.executor.VirtualThreads;
+
+/**
+ * Asynchronous retries driven by a scheduler: a failed attempt is rescheduled after the delay
+ * of the {@link RetryPolicy} instead of sleeping, so any number of retry loops
+ * share the few threads of the scheduler and of the executor running the attempts.
+ * <p>An attempt rejected with a {@link CallNotPermittedException} (see {@link CircuitBreaker}, {@link ConcurrencyLimiter})
+ * is not retried before the delay it gives.
+ * <p>The default instance uses a shared daemon scheduler and an executor of virtual threads
+ * (daemon platform threads before Java 21).
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+public class Retrier {
+
+    private static final class DefaultHolder {
+        private static final Retrier DEFAULT;
+        static {
+            final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, VirtualThreads.platformThreadFactory("retry-scheduler-"));
+            scheduler.setRemoveOnCancelPolicy(true);
+            DEFAULT = new Retrier(scheduler, VirtualThreads.newExecutor("retry-"));
+        }
+    }
+
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+
+    /**
+     * @param scheduler schedules the next attempts
+     * @param executor runs the attempts
+     */
+    public Retrier(ScheduledExecutorService scheduler, Executor executor) {
+        this.scheduler = scheduler;
+        this.executor = executor;
+    }
+
+    /**
+     * @return the shared instance
+     */
+    public static Retrier getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    /**
+     * @param <T>
+     * @param supplier
+     * @param policy
+     * @return a future completed with the first successful result, or exceptionally with the last error
+     * when the error is not retryable, the attempts are exhausted or the deadline is reached.
+     * Cancelling it stops the retries.
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> supplier, RetryPolicy policy) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final long start = System.nanoTime();
+        submit(future, () -> attempt(future, supplier, policy, 1, start), 0);
+        return future;
+    }
+
+    /**
+     * @param runnable
+     * @param policy
+     * @return
+     * @see #supply(Supplier, RetryPolicy)
+     */
+    public CompletableFuture<Void> run(Runnable runnable, RetryPolicy policy) {
+        return supply(() -> {
+            runnable.run();
+            return null;
+        }, policy);
+    }
+
+    private <T> void attempt(CompletableFuture<T> future, Supplier<T> supplier, RetryPolicy policy, int attempt, long start) {
+        if (future.isDone()) {
+            return;
+        }
+        try {
+            future.complete(supplier.get());
+        } catch (RuntimeException | Error e) {
+            if (attempt >= policy.getMaxAttempts() || !policy.isRetryable(e)) {
+                future.completeExceptionally(e);
+                return;
+            }
+            final long delay = e instanceof CallNotPermittedException
+                    ? Math.max(policy.delayNanos(attempt), ((CallNotPermittedException) e).getRetryAfterNanos())
+                    : policy.delayNanos(attempt);
+            if (policy.getDeadlineNanos() >= 0 && System.nanoTime() + delay - start > policy.getDeadlineNanos()) {
+                future.completeExceptionally(e);
+                return;
+            }
+            submit(future, () -> attempt(future, supplier, policy, attempt + 1, start), delay);
+        }
+    }
+
+    private void submit(CompletableFuture<?> future, Runnable attempt, long delayNanos) {
+        try {
+            if (delayNanos <= 0) {
+                executor.execute(attempt);
+            } else {
+                scheduler.schedule(() -> {
+                    try {
+                        executor.execute(attempt);
+                    } catch (RejectedExecutionException e) {
+                        future.completeExceptionally(e);
+                    }
+                }, delayNanos, TimeUnit.NANOSECONDS);
+            }
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.concurrent;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Immutable retry policy: maximum attempts (including the first one), exponential backoff
+ * bounded by a maximum delay, random jitter, overall deadline and retryable errors.
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+public final class RetryPolicy {
+
+    private final int maxAttempts;
+    private final long initialDelayNanos;
+    private final long maxDelayNanos;
+    private final double multiplier;
+    private final double jitter;
+    private final long deadlineNanos;
+    private final Predicate<Throwable> retryOn;
+
+    /**
+     * @param maxAttempts attempts including the first one, {@link Integer#MAX_VALUE} for no limit
+     * @param initialDelay delay before the second attempt
+     * @param maxDelay
+     * @param multiplier factor applied to the delay after each attempt
+     * @param unit
+     */
+    public RetryPolicy(int maxAttempts, long initialDelay, long maxDelay, double multiplier, TimeUnit unit) {
+        this(maxAttempts, unit.toNanos(initialDelay), unit.toNanos(maxDelay), multiplier, 0, -1, e -> true);
+    }
+
+    private RetryPolicy(int maxAttempts, long initialDelayNanos, long maxDelayNanos, double multiplier, double jitter, long deadlineNanos, Predicate<Throwable> retryOn) {
+        if (maxAttempts < 1 || initialDelayNanos < 0 || maxDelayNanos < initialDelayNanos || multiplier < 1 || jitter < 0 || jitter > 1) {
+            throw new IllegalArgumentException("Invalid retry policy");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialDelayNanos = initialDelayNanos;
+        this.maxDelayNanos = maxDelayNanos;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+        this.deadlineNanos = deadlineNanos;
+        this.retryOn = retryOn;
+    }
+
+    /**
+     * @param maxAttempts
+     * @param delay
+     * @param unit
+     * @return a policy retrying with a fixed delay
+     */
+    public static RetryPolicy fixed(int maxAttempts, long delay, TimeUnit unit) {
+        return new RetryPolicy(maxAttempts, delay, delay, 1, unit);
+    }
+
+    /**
+     * @param jitter ratio of each delay randomly removed, between 0 and 1
+     * @return
+     */
+    public RetryPolicy withJitter(double jitter) {
+        return new RetryPolicy(maxAttempts, initialDelayNanos, maxDelayNanos, multiplier, jitter, deadlineNanos, retryOn);
+    }
+
+    /**
+     * @param deadline maximum time from the first attempt after which no attempt is started
+     * @param unit
+     * @return
+     */
+    public RetryPolicy withDeadline(long deadline, TimeUnit unit) {
+        return new RetryPolicy(maxAttempts, initialDelayNanos, maxDelayNanos, multiplier, jitter, unit.toNanos(deadline), retryOn);
+    }
+
+    /**
+     * @param retryOn errors to retry, the others fail immediately
+     * @return
+     */
+    public RetryPolicy retryOn(Predicate<Throwable> retryOn) {
+        return new RetryPolicy(maxAttempts, initialDelayNanos, maxDelayNanos, multiplier, jitter, deadlineNanos, retryOn);
+    }
+
+    /**
+     * @return
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * @return the deadline in nanoseconds or -1
+     */
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    /**
+     * @param error
+     * @return
+     */
+    public boolean isRetryable(Throwable error) {
+        return retryOn.test(error);
+    }
+
+    /**
+     * @param attempt number of the failed attempt, starting at 1
+     * @return the delay before the next attempt, jitter included
+     */
+    public long delayNanos(int attempt) {
+        double delay = initialDelayNanos;
+        for (int i = 1; i < attempt && delay < maxDelayNanos; i++) {
+            delay *= multiplier;
+        }
+        delay = Math.min(delay, maxDelayNanos);
+        if (jitter > 0) {
+            delay -= delay * jitter * ThreadLocalRandom.current().nextDouble();
+        }
+        return (long) delay;
+    }
+
+}
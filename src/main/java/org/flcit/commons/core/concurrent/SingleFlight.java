@@ -0,0 +1,170 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Coalescing of concurrent calls by key: the first caller of a key runs the call,
+ * the callers arriving while it is in flight share its result instead of calling again: each caller gets
+ * its own dependent {@link CompletableFuture}, so completing or cancelling it does not affect the others.
+ * <p>With a time to live, a successful result is also returned to the callers of the key until it expires.
+ * Failures are never kept.
+ *
+ * @param <K>
+ * @param <V>
+ * @since 
+ * @author Florian Lestic
+ */
+public class SingleFlight<K, V> {
+
+    private static final int PURGE_INTERVAL = 64;
+
+    private final ConcurrentMap<K, Call<V>> calls = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final AtomicInteger created = new AtomicInteger();
+
+    /**
+     * Coalescing of in flight calls only.
+     */
+    public SingleFlight() {
+        this.ttlNanos = 0;
+    }
+
+    /**
+     * @param ttl time to live of the successful results
+     * @param unit
+     */
+    public SingleFlight(long ttl, TimeUnit unit) {
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    /**
+     * Runs the call on the current thread if no call of the key is in flight (or cached), else waits for it.
+     * @param key
+     * @param supplier
+     * @return
+     */
+    public V get(K key, Supplier<V> supplier) {
+        try {
+            return execute(key, supplier, null).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @param key
+     * @param supplier
+     * @param executor runs the call if no call of the key is in flight (or cached), null for the current thread
+     * @return a future of the call of the key, dependent on the shared one and private to the caller
+     */
+    public CompletableFuture<V> execute(K key, Supplier<V> supplier, Executor executor) {
+        Call<V> call;
+        while (true) {
+            final long now = System.nanoTime();
+            call = calls.get(key);
+            if (call != null && call.isValid(now)) {
+                return call.future.thenApply(Function.identity());
+            }
+            final Call<V> candidate = new Call<>();
+            if (call == null ? calls.putIfAbsent(key, candidate) == null : calls.replace(key, call, candidate)) {
+                call = candidate;
+                break;
+            }
+        }
+        if (ttlNanos > 0 && created.incrementAndGet() % PURGE_INTERVAL == 0) {
+            purge();
+        }
+        final Call<V> leader = call;
+        final Runnable task = () -> run(key, leader, supplier);
+        if (executor == null) {
+            task.run();
+        } else {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                leader.future.completeExceptionally(e);
+                calls.remove(key, leader);
+            }
+        }
+        return leader.future.thenApply(Function.identity());
+    }
+
+    private void run(K key, Call<V> call, Supplier<V> supplier) {
+        try {
+            final V value = supplier.get();
+            call.expiresAt = System.nanoTime() + ttlNanos;
+            call.future.complete(value);
+        } catch (RuntimeException | Error e) {
+            call.future.completeExceptionally(e);
+        } finally {
+            if (ttlNanos <= 0 || call.future.isCompletedExceptionally()) {
+                calls.remove(key, call);
+            }
+        }
+    }
+
+    /**
+     * Forgets the cached result or the in flight call of the key (callers already waiting keep it).
+     * @param key
+     */
+    public void forget(K key) {
+        calls.remove(key);
+    }
+
+    /**
+     * Removes the expired results.
+     */
+    public void purge() {
+        final long now = System.nanoTime();
+        calls.entrySet().removeIf(e -> !e.getValue().isValid(now));
+    }
+
+    /**
+     * @return the number of in flight calls and cached results
+     */
+    public int size() {
+        return calls.size();
+    }
+
+    private static final class Call<V> {
+
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private volatile long expiresAt;
+
+        private boolean isValid(long now) {
+            return !future.isDone() || (!future.isCompletedExceptionally() && now - expiresAt < 0);
+        }
+
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.exception;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Failure of a group of tasks: the first error is the cause, the following ones are suppressed.
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+public class AggregateException extends BasicRuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<Throwable> errors;
+
+    /**
+     * @param message
+     * @param errors
+     */
+    public AggregateException(String message, List<? extends Throwable> errors) {
+        super(message, errors.isEmpty() ? null : errors.get(0));
+        this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+        for (int i = 1; i < errors.size(); i++) {
+            addSuppressed(errors.get(i));
+        }
+    }
+
+    /**
+     * @return
+     */
+    public List<Throwable> getErrors() {
+        return errors;
+    }
+
+}
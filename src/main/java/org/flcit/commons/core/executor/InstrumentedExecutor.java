@@ -0,0 +1,225 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.executor;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.flcit.commons.core.executor.metrics.ExecutorMetrics;
+
+/**
+ * {@link Executor} decorator reporting to an {@link ExecutorMetrics} the submissions, rejections,
+ * queue wait and run time of the tasks.
+ * <p>{@link org.flcit.commons.core.util.AsyncUtils#doAsyncRetryable(Runnable, java.util.concurrent.ScheduledExecutorService, int, long, java.util.function.Predicate) AsyncUtils.doAsyncRetryable}
+ * reports its retries when given an {@link InstrumentedScheduledExecutorService}.
+ *
+ * @since 
+ * @author Florian Lestic
+ * @see InstrumentedScheduledExecutorService
+ */
+public class InstrumentedExecutor implements Executor {
+
+    private final Executor delegate;
+    protected final ExecutorMetrics metrics;
+    private final Set<Task<?>> pending;
+
+    /**
+     * @param delegate
+     * @param metrics
+     */
+    public InstrumentedExecutor(Executor delegate, ExecutorMetrics metrics) {
+        this(delegate, metrics, false);
+    }
+
+    /**
+     * @param delegate
+     * @param metrics
+     * @param trackPending keep the submitted tasks not yet started, see {@link #cancelPending()}
+     */
+    protected InstrumentedExecutor(Executor delegate, ExecutorMetrics metrics, boolean trackPending) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.pending = trackPending ? ConcurrentHashMap.newKeySet() : null;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        final Task<Void> task = task(command, System.nanoTime());
+        metrics.onSubmitted();
+        try {
+            delegate.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.rejected();
+            throw e;
+        }
+    }
+
+    /**
+     * Reports a retry of a failed task.
+     */
+    public void recordRetry() {
+        metrics.onRetry();
+    }
+
+    /**
+     * @return
+     */
+    public ExecutorMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Reports as cancelled the tracked tasks not yet started (e.g. drained by a shutdownNow).
+     */
+    protected void cancelPending() {
+        if (pending != null) {
+            for (Task<?> task : pending) {
+                task.cancelled();
+            }
+        }
+    }
+
+    /**
+     * @param command
+     * @param expectedStart time (System.nanoTime) from which the task is waiting
+     * @return
+     */
+    protected Runnable wrap(Runnable command, long expectedStart) {
+        return task(command, expectedStart);
+    }
+
+    /**
+     * @param <T>
+     * @param callable
+     * @param expectedStart time (System.nanoTime) from which the task is waiting
+     * @return
+     */
+    protected <T> Callable<T> wrap(Callable<T> callable, long expectedStart) {
+        return task(callable, expectedStart);
+    }
+
+    Task<Void> task(Runnable command, long expectedStart) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        return new Task<>(metrics, pending, command, null, expectedStart);
+    }
+
+    <T> Task<T> task(Callable<T> callable, long expectedStart) {
+        if (callable == null) {
+            throw new NullPointerException();
+        }
+        return new Task<>(metrics, pending, null, callable, expectedStart);
+    }
+
+    /**
+     * Submitted task leaving the queue exactly once: when it starts, is rejected or cancelled.
+     * A task started after being reported cancelled (race with a cancellation) runs unreported.
+     *
+     * @param <T>
+     */
+    static final class Task<T> implements Runnable, Callable<T> {
+
+        private final ExecutorMetrics metrics;
+        private final Set<Task<?>> pending;
+        private final Runnable command;
+        private final Callable<T> callable;
+        private final long expectedStart;
+        private final AtomicBoolean dequeued = new AtomicBoolean();
+
+        Task(ExecutorMetrics metrics, Set<Task<?>> pending, Runnable command, Callable<T> callable, long expectedStart) {
+            this.metrics = metrics;
+            this.pending = pending;
+            this.command = command;
+            this.callable = callable;
+            this.expectedStart = expectedStart;
+            if (pending != null) {
+                pending.add(this);
+            }
+        }
+
+        private boolean dequeue() {
+            if (!dequeued.compareAndSet(false, true)) {
+                return false;
+            }
+            if (pending != null) {
+                pending.remove(this);
+            }
+            return true;
+        }
+
+        void rejected() {
+            if (dequeue()) {
+                metrics.onRejected();
+            }
+        }
+
+        void cancelled() {
+            if (dequeue()) {
+                metrics.onCancelled();
+            }
+        }
+
+        private long start() {
+            final long start = System.nanoTime();
+            metrics.onStarted(start - expectedStart);
+            return start;
+        }
+
+        @Override
+        public void run() {
+            if (!dequeue()) {
+                command.run();
+                return;
+            }
+            final long start = start();
+            Throwable error = null;
+            try {
+                command.run();
+            } catch (RuntimeException | Error e) {
+                error = e;
+                throw e;
+            } finally {
+                metrics.onCompleted(System.nanoTime() - start, error);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("java:S1181")
+        public T call() throws Exception {
+            if (!dequeue()) {
+                return callable.call();
+            }
+            final long start = start();
+            Throwable error = null;
+            try {
+                return callable.call();
+            } catch (Exception | Error e) {
+                error = e;
+                throw e;
+            } finally {
+                metrics.onCompleted(System.nanoTime() - start, error);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.executor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.flcit.commons.core.executor.metrics.ExecutorMetrics;
+
+/**
+ * {@link ScheduledExecutorService} decorator reporting to an {@link ExecutorMetrics}.
+ * <p>The queue wait of a delayed task is counted from its scheduled time;
+ * each run of a periodic task is reported as a submission starting immediately.
+ * <p>A task leaves the queue once: when it starts, is rejected, or is cancelled before starting
+ * (through its future, by an invokeAll / invokeAny, or drained by {@link #shutdownNow()}).
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+public class InstrumentedScheduledExecutorService extends InstrumentedExecutor implements ScheduledExecutorService {
+
+    private final ScheduledExecutorService delegate;
+
+    /**
+     * @param delegate
+     * @param metrics
+     */
+    public InstrumentedScheduledExecutorService(ScheduledExecutorService delegate, ExecutorMetrics metrics) {
+        super(delegate, metrics, true);
+        this.delegate = delegate;
+    }
+
+    private <F> F report(Task<?> task, Supplier<F> submission) {
+        metrics.onSubmitted();
+        try {
+            return submission.get();
+        } catch (RejectedExecutionException e) {
+            task.rejected();
+            throw e;
+        }
+    }
+
+    private Runnable periodic(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        return () -> {
+            metrics.onSubmitted();
+            new Task<Void>(metrics, null, command, null, System.nanoTime()).run();
+        };
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        final Task<Void> task = task(command, System.nanoTime() + unit.toNanos(delay));
+        return new TrackedScheduledFuture<>(report(task, () -> delegate.schedule((Runnable) task, delay, unit)), task);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        final Task<V> task = task(callable, System.nanoTime() + unit.toNanos(delay));
+        return new TrackedScheduledFuture<>(report(task, () -> delegate.schedule((Callable<V>) task, delay, unit)), task);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        final Runnable task = periodic(command);
+        return delegate.scheduleAtFixedRate(task, initialDelay, period, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        final Runnable task = periodic(command);
+        return delegate.scheduleWithFixedDelay(task, initialDelay, delay, unit);
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        final Task<T> wrapped = task(task, System.nanoTime());
+        return new TrackedFuture<>(report(wrapped, () -> delegate.submit((Callable<T>) wrapped)), wrapped);
+    }
+
+    @Override
+    public <T> Future<T> submit(Runnable task, T result) {
+        final Task<Void> wrapped = task(task, System.nanoTime());
+        return new TrackedFuture<>(report(wrapped, () -> delegate.submit((Runnable) wrapped, result)), wrapped);
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        final Task<Void> wrapped = task(task, System.nanoTime());
+        return new TrackedFuture<>(report(wrapped, () -> delegate.submit((Runnable) wrapped)), wrapped);
+    }
+
+    private <T> List<Task<T>> wrapAll(Collection<? extends Callable<T>> tasks) {
+        final long now = System.nanoTime();
+        final List<Task<T>> wrapped = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            wrapped.add(task(task, now));
+            metrics.onSubmitted();
+        }
+        return wrapped;
+    }
+
+    /**
+     * The tasks not started once the invocation returns were cancelled by it (or never submitted);
+     * when it is rejected, they are all reported as rejected.
+     */
+    private static void release(List<? extends Task<?>> tasks, boolean rejected) {
+        for (Task<?> task : tasks) {
+            if (rejected) {
+                task.rejected();
+            } else {
+                task.cancelled();
+            }
+        }
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+        final List<Task<T>> wrapped = wrapAll(tasks);
+        try {
+            return delegate.invokeAll(wrapped);
+        } catch (RejectedExecutionException e) {
+            release(wrapped, true);
+            throw e;
+        } finally {
+            release(wrapped, false);
+        }
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException {
+        final List<Task<T>> wrapped = wrapAll(tasks);
+        try {
+            return delegate.invokeAll(wrapped, timeout, unit);
+        } catch (RejectedExecutionException e) {
+            release(wrapped, true);
+            throw e;
+        } finally {
+            release(wrapped, false);
+        }
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+        final List<Task<T>> wrapped = wrapAll(tasks);
+        try {
+            return delegate.invokeAny(wrapped);
+        } catch (RejectedExecutionException e) {
+            release(wrapped, true);
+            throw e;
+        } finally {
+            release(wrapped, false);
+        }
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        final List<Task<T>> wrapped = wrapAll(tasks);
+        try {
+            return delegate.invokeAny(wrapped, timeout, unit);
+        } catch (RejectedExecutionException e) {
+            release(wrapped, true);
+            throw e;
+        } finally {
+            release(wrapped, false);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        final List<Runnable> drained = delegate.shutdownNow();
+        cancelPending();
+        return drained;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * Future reporting its cancellation when the task did not start.
+     *
+     * @param <V>
+     */
+    private static class TrackedFuture<V> implements Future<V> {
+
+        protected final Future<V> future;
+        private final Task<?> task;
+
+        private TrackedFuture(Future<V> future, Task<?> task) {
+            this.future = future;
+            this.task = task;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            final boolean cancelled = future.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                task.cancelled();
+            }
+            return cancelled;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return future.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return future.isDone();
+        }
+
+        @Override
+        public V get() throws InterruptedException, ExecutionException {
+            return future.get();
+        }
+
+        @Override
+        public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return future.get(timeout, unit);
+        }
+
+    }
+
+    /**
+     * @param <V>
+     */
+    private static final class TrackedScheduledFuture<V> extends TrackedFuture<V> implements ScheduledFuture<V> {
+
+        private TrackedScheduledFuture(ScheduledFuture<V> future, Task<?> task) {
+            super(future, task);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return ((ScheduledFuture<V>) future).getDelay(unit);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return ((ScheduledFuture<V>) future).compareTo(o);
+        }
+
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.executor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link Executor} accepting a single task, run on a shared elastic executor
+ * (a virtual thread per task when enabled, else a cached pool of daemon threads, see {@link VirtualThreads#newExecutor(String)})
+ * or on a given executor: no thread is owned by the instance, so nothing has to be shut down.
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+public final class OneShotExecutor implements Executor {
+
+    private static final class SharedHolder {
+        private static final Executor SHARED = VirtualThreads.newExecutor("one-shot-");
+    }
+
+    private final AtomicBoolean executed = new AtomicBoolean();
+    private final Executor executor;
+
+    /**
+     * Runs the task on the shared executor.
+     */
+    public OneShotExecutor() {
+        this(null);
+    }
+
+    /**
+     * @param executor runs the task, null for the shared executor
+     */
+    public OneShotExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @param command
+     * @throws IllegalStateException if a task was already executed
+     */
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        if (!executed.compareAndSet(false, true)) {
+            throw new IllegalStateException("Task already executed !");
+        }
+        (executor != null ? executor : SharedHolder.SHARED).execute(command);
+    }
+
+    /**
+     * @return
+     */
+    public boolean isExecuted() {
+        return executed.get();
+    }
+
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.executor;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link Executor} decorator limiting the rate of the tasks passed to the delegate executor
+ * with a token bucket of {@code burst} tokens refilled at {@code permitsPerSecond}
+ * (lock free: a single compare and set of the time of the next free token).
+ * <p>The tasks without token wait in a bounded FIFO queue drained by the scheduler when tokens are refilled;
+ * when the queue is full, the {@link RejectionPolicy} applies.
+ * <p>A task given a timeout is expired if it does not start before its deadline: it is not run,
+ * it is cancelled if it is a {@link Future} (task of {@link java.util.concurrent.ExecutorService#submit(Runnable)}...)
+ * and passed to the expired handler. A queued task rejected by the delegate executor is handled the same way
+ * (counted as rejected): the drain of the queue goes on, as it does when the expired handler fails.
+ * <p>It can be used by every method of the library taking an {@link Executor}
+ * (for example as the attempt executor of a {@link org.flcit.commons.core.concurrent.Retrier}).
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+public class RateLimitedExecutor implements Executor {
+
+    private static final Logger LOG = Logger.getLogger(RateLimitedExecutor.class.getName());
+
+    /**
+     * Policy applied to a task when the queue is full.
+     */
+    public enum RejectionPolicy {
+        /** throws a {@link RejectedExecutionException} */
+        ABORT,
+        /** drops the task */
+        DISCARD,
+        /** drops the oldest queued task and queues the task */
+        DISCARD_OLDEST
+    }
+
+    private final Executor delegate;
+    private final ScheduledExecutorService scheduler;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxQueued;
+    private final RejectionPolicy rejectionPolicy;
+    private final Consumer<Runnable> expiredHandler;
+    private final AtomicLong nextFree = new AtomicLong(System.nanoTime());
+    private final Queue<Task> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    /**
+     * Unbounded queue.
+     * @param delegate
+     * @param scheduler
+     * @param permitsPerSecond
+     * @param burst
+     */
+    public RateLimitedExecutor(Executor delegate, ScheduledExecutorService scheduler, double permitsPerSecond, int burst) {
+        this(delegate, scheduler, permitsPerSecond, burst, Integer.MAX_VALUE, RejectionPolicy.ABORT, null);
+    }
+
+    /**
+     * @param delegate
+     * @param scheduler
+     * @param permitsPerSecond
+     * @param burst
+     * @param maxQueued
+     * @param rejectionPolicy
+     * @param expiredHandler handler of the expired tasks and of the queued tasks rejected by the delegate, may be null
+     */
+    @SuppressWarnings("java:S107")
+    public RateLimitedExecutor(Executor delegate, ScheduledExecutorService scheduler, double permitsPerSecond, int burst, int maxQueued, RejectionPolicy rejectionPolicy, Consumer<Runnable> expiredHandler) {
+        if (permitsPerSecond <= 0 || burst < 1 || maxQueued < 0) {
+            throw new IllegalArgumentException("Invalid rate limit configuration");
+        }
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = (burst - 1) * intervalNanos;
+        this.maxQueued = maxQueued;
+        this.rejectionPolicy = rejectionPolicy;
+        this.expiredHandler = expiredHandler;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        submit(new Task(command, false, 0));
+    }
+
+    /**
+     * @param command
+     * @param timeout maximum time before the task starts
+     * @param unit
+     */
+    public void execute(Runnable command, long timeout, TimeUnit unit) {
+        submit(new Task(command, true, System.nanoTime() + unit.toNanos(timeout)));
+    }
+
+    private void submit(Task task) {
+        if (task.runnable == null) {
+            throw new NullPointerException();
+        }
+        if (queued.get() == 0 && acquire() == 0) {
+            dispatch(task);
+            return;
+        }
+        while (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            switch (rejectionPolicy) {
+            case DISCARD:
+                rejected.increment();
+                return;
+            case DISCARD_OLDEST:
+                rejected.increment();
+                if (queue.poll() == null) {
+                    return;
+                }
+                queued.decrementAndGet();
+                break;
+            default:
+                rejected.increment();
+                throw new RejectedExecutionException("Rate limited queue is full");
+            }
+        }
+        queue.add(task);
+        scheduleDrain(nextTokenNanos());
+    }
+
+    private long nextTokenNanos() {
+        return Math.max(0, nextFree.get() - burstNanos - System.nanoTime());
+    }
+
+    /**
+     * @return 0 if a token is taken, else the time before the next token
+     */
+    private long acquire() {
+        while (true) {
+            final long now = System.nanoTime();
+            final long next = nextFree.get();
+            final long start = next - now > 0 ? next : now;
+            final long wait = start - burstNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (nextFree.compareAndSet(next, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    private void scheduleDrain(long delayNanos) {
+        if (drainScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::drain, delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        try {
+            Task task;
+            while ((task = queue.peek()) != null) {
+                if (task.isExpired()) {
+                    if (queue.remove(task)) {
+                        queued.decrementAndGet();
+                        expire(task);
+                    }
+                    continue;
+                }
+                final long wait = acquire();
+                if (wait > 0) {
+                    scheduleDrain(wait);
+                    return;
+                }
+                task = queue.poll();
+                if (task == null) {
+                    return;
+                }
+                queued.decrementAndGet();
+                try {
+                    dispatch(task);
+                } catch (RejectedExecutionException e) {
+                    rejected.increment();
+                    drop(task);
+                }
+            }
+        } finally {
+            // no-op if already scheduled; else the queued tasks are not stranded by a failure of the drain
+            if (!queue.isEmpty()) {
+                scheduleDrain(nextTokenNanos());
+            }
+        }
+    }
+
+    private void dispatch(Task task) {
+        if (!task.timed) {
+            delegate.execute(task.runnable);
+            return;
+        }
+        delegate.execute(() -> {
+            if (task.isExpired()) {
+                expire(task);
+            } else {
+                task.runnable.run();
+            }
+        });
+    }
+
+    private void expire(Task task) {
+        expired.increment();
+        drop(task);
+    }
+
+    private void drop(Task task) {
+        if (task.runnable instanceof Future) {
+            ((Future<?>) task.runnable).cancel(false);
+        }
+        if (expiredHandler != null) {
+            try {
+                expiredHandler.accept(task.runnable);
+            } catch (RuntimeException e) {
+                LOG.log(Level.SEVERE, "RateLimitedExecutor expired handler", e);
+            }
+        }
+    }
+
+    /**
+     * @return
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * @return
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return
+     */
+    public long getExpired() {
+        return expired.sum();
+    }
+
+    private static final class Task {
+
+        private final Runnable runnable;
+        private final boolean timed;
+        private final long deadline;
+
+        private Task(Runnable runnable, boolean timed, long deadline) {
+            this.runnable = runnable;
+            this.timed = timed;
+            this.deadline = deadline;
+        }
+
+        private boolean isExpired() {
+            return timed && System.nanoTime() - deadline > 0;
+        }
+
+    }
+
+}
@@ -20,16 +20,42 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 
  * @since 
  * @author Florian Lestic
+ * @see OneShotExecutor
  */
 public final class SingleTaskThreadExecutor implements Executor {
 
-    private boolean execute;
-    private final ExecutorService executorService = Executors.newFixedThreadPool(1);
+    private final AtomicBoolean execute = new AtomicBoolean();
+    private final ExecutorService executorService;
+
+    /**
+     * 
+     */
+    public SingleTaskThreadExecutor() {
+        this.executorService = Executors.newFixedThreadPool(1);
+    }
+
+    /**
+     * @param threadFactory
+     * @see VirtualThreads#threadFactory(String)
+     */
+    public SingleTaskThreadExecutor(ThreadFactory threadFactory) {
+        this.executorService = Executors.newFixedThreadPool(1, threadFactory);
+    }
+
+    /**
+     * @return an executor running the task on a virtual thread if enabled, else on a new platform thread
+     * @see VirtualThreads#isEnabled()
+     */
+    public static SingleTaskThreadExecutor create() {
+        return VirtualThreads.isEnabled() ? new SingleTaskThreadExecutor(VirtualThreads.threadFactory("single-task-")) : new SingleTaskThreadExecutor();
+    }
 
     /**
      * Executes the given command at some time in the future.
@@ -44,10 +70,9 @@ public final class SingleTaskThreadExecutor implements Executor {
      */
     @Override
     public void execute(Runnable command) {
-        if (this.execute) {
+        if (!this.execute.compareAndSet(false, true)) {
             throw new IllegalStateException("Task already executed !");
         }
-        this.execute = true;
         try {
             executorService.execute(command);
         } finally {
@@ -55,13 +80,4 @@ public final class SingleTaskThreadExecutor implements Executor {
         }
     }
 
-    /**
-     * Force to shutdown the executor
-     */
-    @SuppressWarnings({ "java:S1113", "java:S1874" })
-    @Override
-    protected void finalize() {
-        executorService.shutdown();
-    }
-
 }
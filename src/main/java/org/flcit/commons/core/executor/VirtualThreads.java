@@ -0,0 +1,145 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.executor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.flcit.commons.core.util.SystemPropertyUtils;
+
+/**
+ * Thread creation using virtual threads when the runtime supports them (Java 21+),
+ * resolved by reflection since the library targets Java 8, with a daemon platform thread fallback.
+ * <p>Virtual threads can be disabled with the system property {@value #PROPERTY_ENABLED}{@code =false}.
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+public final class VirtualThreads {
+
+    /**
+     * 
+     */
+    public static final String PROPERTY_ENABLED = "org.flcit.commons.core.virtual-threads";
+
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        Method newThreadPerTaskExecutor = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            name = builderClass.getMethod("name", String.class, long.class);
+            factory = builderClass.getMethod("factory");
+            newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            // preview runtimes (19, 20) throw UnsupportedOperationException without --enable-preview
+            ofVirtual.invoke(null);
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+    }
+
+    private VirtualThreads() { }
+
+    /**
+     * @return true if the runtime supports virtual threads
+     */
+    public static boolean isAvailable() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * @return true if the runtime supports virtual threads and they are not disabled
+     */
+    public static boolean isEnabled() {
+        return isAvailable() && SystemPropertyUtils.getBoolean(PROPERTY_ENABLED, true);
+    }
+
+    /**
+     * @param prefix
+     * @return a factory of virtual threads if enabled, of daemon platform threads otherwise,
+     * named with the prefix followed by a counter
+     */
+    public static ThreadFactory threadFactory(String prefix) {
+        return isEnabled() ? virtualThreadFactory(prefix) : platformThreadFactory(prefix);
+    }
+
+    /**
+     * @param prefix
+     * @return a factory of daemon platform threads named with the prefix followed by a counter
+     */
+    public static ThreadFactory platformThreadFactory(String prefix) {
+        final AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, prefix + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            return (ThreadFactory) FACTORY.invoke(NAME.invoke(OF_VIRTUAL.invoke(null), prefix, 0L));
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not create virtual thread factory", e);
+        }
+    }
+
+    /**
+     * @param prefix
+     * @return an executor starting a virtual thread per task if enabled,
+     * a cached pool of daemon platform threads otherwise
+     */
+    public static ExecutorService newExecutor(String prefix) {
+        if (isEnabled()) {
+            try {
+                return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, virtualThreadFactory(prefix));
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Could not create virtual thread executor", e);
+            }
+        }
+        return Executors.newCachedThreadPool(platformThreadFactory(prefix));
+    }
+
+    /**
+     * Starts a thread (virtual if enabled, daemon platform otherwise) running the task.
+     * @param name
+     * @param runnable
+     * @return
+     */
+    public static Thread start(String name, Runnable runnable) {
+        final Thread thread = threadFactory(name).newThread(runnable);
+        thread.setName(name);
+        thread.start();
+        return thread;
+    }
+
+}
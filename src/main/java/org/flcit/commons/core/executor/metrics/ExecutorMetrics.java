@@ -0,0 +1,61 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.executor.metrics;
+
+/**
+ * Sink of the events of an instrumented executor.
+ *
+ * @since 
+ * @author Florian Lestic
+ * @see ExecutorStatistics
+ */
+public interface ExecutorMetrics {
+
+    /**
+     * A task is submitted.
+     */
+    void onSubmitted();
+
+    /**
+     * A task is rejected by the executor.
+     */
+    void onRejected();
+
+    /**
+     * A submitted task is cancelled, or drained by a shutdown, before it starts.
+     */
+    void onCancelled();
+
+    /**
+     * A task starts.
+     * @param queueWaitNanos time between its submission (or its scheduled time) and its start
+     */
+    void onStarted(long queueWaitNanos);
+
+    /**
+     * A task ends.
+     * @param runNanos
+     * @param error null if the task succeeded
+     */
+    void onCompleted(long runNanos, Throwable error);
+
+    /**
+     * A failed task is scheduled for a retry.
+     */
+    void onRetry();
+
+}
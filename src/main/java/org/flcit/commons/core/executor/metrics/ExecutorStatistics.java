@@ -0,0 +1,210 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.executor.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * In memory {@link ExecutorMetrics}: counters, active and queued tasks
+ * (a task leaves the queue when it starts, is rejected or cancelled),
+ * queue wait and run time histograms, exposed through JMX once {@link #register(String)}.
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+public class ExecutorStatistics implements ExecutorMetrics, ExecutorStatisticsMXBean {
+
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram runTime = new LatencyHistogram();
+    private ObjectName objectName;
+
+    @Override
+    public void onSubmitted() {
+        submitted.increment();
+        queued.increment();
+    }
+
+    @Override
+    public void onRejected() {
+        rejected.increment();
+        queued.decrement();
+    }
+
+    @Override
+    public void onCancelled() {
+        cancelled.increment();
+        queued.decrement();
+    }
+
+    @Override
+    public void onStarted(long queueWaitNanos) {
+        started.increment();
+        queued.decrement();
+        queueWait.record(queueWaitNanos);
+    }
+
+    @Override
+    public void onCompleted(long runNanos, Throwable error) {
+        completed.increment();
+        if (error != null) {
+            failed.increment();
+        }
+        runTime.record(runNanos);
+    }
+
+    @Override
+    public void onRetry() {
+        retries.increment();
+    }
+
+    /**
+     * Registers the statistics in the platform MBean server.
+     * @param name
+     * @return the name of the MBean
+     */
+    public synchronized ObjectName register(String name) {
+        try {
+            final ObjectName on = new ObjectName("org.flcit.commons.core:type=Executor,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, on);
+            this.objectName = on;
+            return on;
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register executor statistics " + name, e);
+        }
+    }
+
+    /**
+     * Unregisters the statistics from the platform MBean server.
+     */
+    public synchronized void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not unregister executor statistics " + objectName, e);
+        } finally {
+            objectName = null;
+        }
+    }
+
+    /**
+     * @return
+     */
+    public LatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+
+    /**
+     * @return
+     */
+    public LatencyHistogram getRunTime() {
+        return runTime;
+    }
+
+    @Override
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    @Override
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    @Override
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    @Override
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public long getCancelled() {
+        return cancelled.sum();
+    }
+
+    @Override
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    @Override
+    public long getActive() {
+        return Math.max(0, started.sum() - completed.sum());
+    }
+
+    @Override
+    public long getQueued() {
+        return Math.max(0, queued.sum());
+    }
+
+    @Override
+    public double getQueueWaitMeanMillis() {
+        return queueWait.getMean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getQueueWaitP99Millis() {
+        return queueWait.getPercentile(99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getQueueWaitMaxMillis() {
+        return queueWait.getMax() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getRunTimeMeanMillis() {
+        return runTime.getMean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getRunTimeP99Millis() {
+        return runTime.getPercentile(99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getRunTimeMaxMillis() {
+        return runTime.getMax() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutorStatistics [submitted=" + getSubmitted() + ", completed=" + getCompleted() + ", failed=" + getFailed()
+            + ", rejected=" + getRejected() + ", cancelled=" + getCancelled() + ", retries=" + getRetries() + ", active=" + getActive() + ", queued=" + getQueued() + "]";
+    }
+
+}
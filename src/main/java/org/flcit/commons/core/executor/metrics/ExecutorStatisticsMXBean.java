@@ -0,0 +1,97 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.executor.metrics;
+
+/**
+ * JMX view of {@link ExecutorStatistics}.
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+public interface ExecutorStatisticsMXBean {
+
+    /**
+     * @return
+     */
+    long getSubmitted();
+
+    /**
+     * @return
+     */
+    long getCompleted();
+
+    /**
+     * @return
+     */
+    long getFailed();
+
+    /**
+     * @return
+     */
+    long getRejected();
+
+    /**
+     * @return
+     */
+    long getCancelled();
+
+    /**
+     * @return
+     */
+    long getRetries();
+
+    /**
+     * @return
+     */
+    long getActive();
+
+    /**
+     * @return
+     */
+    long getQueued();
+
+    /**
+     * @return
+     */
+    double getQueueWaitMeanMillis();
+
+    /**
+     * @return
+     */
+    double getQueueWaitP99Millis();
+
+    /**
+     * @return
+     */
+    double getQueueWaitMaxMillis();
+
+    /**
+     * @return
+     */
+    double getRunTimeMeanMillis();
+
+    /**
+     * @return
+     */
+    double getRunTimeP99Millis();
+
+    /**
+     * @return
+     */
+    double getRunTimeMaxMillis();
+
+}
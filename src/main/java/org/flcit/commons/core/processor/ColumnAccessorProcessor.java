@@ -0,0 +1,175 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+
+import org.flcit.commons.core.annotation.Column;
+import org.flcit.commons.core.reflection.accessor.GeneratedAccessor;
+import org.flcit.commons.core.reflection.accessor.GeneratedAccessors;
+
+/**
+ * Optional annotation processor generating, for each class declaring {@link Column} fields,
+ * a {@link GeneratedAccessor} reading and writing its declared fields without reflection.
+ * Only the fields the generated class can reach directly (not private, not final) are generated:
+ * the others are left to the reflective path, user getters / setters are never called.
+ * <p>It is not registered as a service: enable it with
+ * {@code -processor org.flcit.commons.core.processor.ColumnAccessorProcessor}
+ * (or the {@code annotationProcessors} configuration of the maven-compiler-plugin).
+ * At runtime, {@link org.flcit.commons.core.reflection.accessor.PropertyAccessor} uses the generated classes when present
+ * and falls back to reflection otherwise.
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+@SupportedAnnotationTypes("org.flcit.commons.core.annotation.Column")
+public class ColumnAccessorProcessor extends AbstractProcessor {
+
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        final Set<TypeElement> types = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(Column.class)) {
+            if (element.getKind() == ElementKind.FIELD
+                    && element.getEnclosingElement().getKind() == ElementKind.CLASS) {
+                types.add((TypeElement) element.getEnclosingElement());
+            }
+        }
+        for (TypeElement type : types) {
+            final String name = GeneratedAccessors.generatedClassName(processingEnv.getElementUtils().getBinaryName(type).toString());
+            if (isAccessible(type) && generated.add(name)) {
+                generate(type, name);
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAccessible(TypeElement type) {
+        Element element = type;
+        while (element instanceof TypeElement) {
+            final TypeElement typeElement = (TypeElement) element;
+            if (typeElement.getModifiers().contains(Modifier.PRIVATE)
+                    || typeElement.getNestingKind() == NestingKind.LOCAL
+                    || typeElement.getNestingKind() == NestingKind.ANONYMOUS) {
+                return false;
+            }
+            element = element.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type, String name) {
+        final List<Property> properties = properties(type);
+        final PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        final String simpleName = name.substring(name.lastIndexOf('.') + 1);
+        final String typeName = type.getQualifiedName().toString();
+        final StringBuilder sb = new StringBuilder(1024);
+        if (!pkg.isUnnamed()) {
+            sb.append("package ").append(pkg.getQualifiedName()).append(";\n\n");
+        }
+        sb.append("/**\n * Generated by ").append(ColumnAccessorProcessor.class.getName()).append(", do not edit.\n */\n")
+            .append("@SuppressWarnings({ \"rawtypes\", \"unchecked\" })\n")
+            .append("public final class ").append(simpleName).append(" implements ")
+            .append(GeneratedAccessor.class.getName()).append('<').append(typeName).append("> {\n\n")
+            .append("    private static final String[] NAMES = {");
+        for (int i = 0; i < properties.size(); i++) {
+            sb.append(i == 0 ? " \"" : ", \"").append(properties.get(i).name).append('"');
+        }
+        sb.append(" };\n\n")
+            .append("    @Override\n    public Class<").append(typeName).append("> type() {\n        return ").append(typeName).append(".class;\n    }\n\n")
+            .append("    @Override\n    public String[] names() {\n        return NAMES.clone();\n    }\n\n")
+            .append("    @Override\n    public boolean isWritable(int index) {\n        return index >= 0 && index < NAMES.length;\n    }\n\n")
+            .append("    @Override\n    public Object get(").append(typeName).append(" target, int index) {\n        switch (index) {\n");
+        for (int i = 0; i < properties.size(); i++) {
+            sb.append("        case ").append(i).append(": return target.").append(properties.get(i).name).append(";\n");
+        }
+        sb.append("        default: throw new IndexOutOfBoundsException(String.valueOf(index));\n        }\n    }\n\n")
+            .append("    @Override\n    public void set(").append(typeName).append(" target, int index, Object value) {\n        switch (index) {\n");
+        for (int i = 0; i < properties.size(); i++) {
+            final Property property = properties.get(i);
+            sb.append("        case ").append(i).append(": target.").append(property.name)
+                .append(Object.class.getName().equals(property.castType) ? " = value" : " = (" + property.castType + ") value").append("; break;\n");
+        }
+        sb.append("        default: throw new UnsupportedOperationException(\"Field not writable: \" + index);\n        }\n    }\n\n}\n");
+        try (Writer writer = processingEnv.getFiler().createSourceFile(name, type).openWriter()) {
+            writer.write(sb.toString());
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Kind.ERROR, "Could not generate " + name + ": " + e.getMessage(), type);
+        }
+    }
+
+    private List<Property> properties(TypeElement type) {
+        final List<Property> properties = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            final Set<Modifier> modifiers = field.getModifiers();
+            if (!modifiers.contains(Modifier.STATIC)
+                    && !modifiers.contains(Modifier.PRIVATE)
+                    && !modifiers.contains(Modifier.FINAL)) {
+                properties.add(new Property(field.getSimpleName().toString(), castType(field.asType())));
+            }
+        }
+        return properties;
+    }
+
+    private String castType(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private static final class Property {
+
+        private final String name;
+        private final String castType;
+
+        private Property(String name, String castType) {
+            this.name = name;
+            this.castType = castType;
+        }
+
+    }
+
+}
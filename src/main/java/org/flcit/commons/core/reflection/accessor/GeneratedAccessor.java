@@ -0,0 +1,63 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.reflection.accessor;
+
+/**
+ * Reflection-free accessor of the fields of a class, generated at compile time
+ * by {@link org.flcit.commons.core.processor.ColumnAccessorProcessor}.
+ * <p>Only the fields declared by the class itself and reachable directly from the generated class
+ * (neither static, private nor final) are exposed, indexed in declaration order:
+ * the other fields are accessed reflectively by {@link PropertyAccessor}.
+ *
+ * @param <T>
+ * @since 
+ * @author Florian Lestic
+ */
+public interface GeneratedAccessor<T> {
+
+    /**
+     * @return
+     */
+    Class<T> type();
+
+    /**
+     * @return the names of the fields by index
+     */
+    String[] names();
+
+    /**
+     * @param index
+     * @return
+     */
+    boolean isWritable(int index);
+
+    /**
+     * @param target
+     * @param index
+     * @return
+     */
+    Object get(T target, int index);
+
+    /**
+     * @param target
+     * @param index
+     * @param value of the field type (boxed for a primitive field): null checks and widening conversions
+     * are applied by {@link PropertyAccessor#set(Object, Object)}
+     */
+    void set(T target, int index, Object value);
+
+}
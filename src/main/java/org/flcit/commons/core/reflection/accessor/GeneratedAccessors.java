@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.reflection.accessor;
+
+import java.util.Optional;
+
+import org.flcit.commons.core.reflection.metadata.SoftClassValue;
+
+/**
+ * Lookup of the {@link GeneratedAccessor} of a class, cached in a {@link SoftClassValue}:
+ * the generated class is searched once in the class loader of the class.
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+public final class GeneratedAccessors {
+
+    /**
+     * Suffix of the generated classes.
+     */
+    public static final String SUFFIX = "_ColumnAccessor";
+
+    private static final SoftClassValue<Optional<GeneratedAccessor<?>>> CACHE = new SoftClassValue<Optional<GeneratedAccessor<?>>>() {
+        @Override
+        protected Optional<GeneratedAccessor<?>> computeValue(Class<?> type) {
+            return Optional.ofNullable(load(type));
+        }
+    };
+
+    private GeneratedAccessors() { }
+
+    /**
+     * @param <T>
+     * @param clazz
+     * @return the generated accessor of the class or null if none was generated
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> GeneratedAccessor<T> find(Class<T> clazz) {
+        return (GeneratedAccessor<T>) CACHE.get(clazz).orElse(null);
+    }
+
+    /**
+     * In the simple name, {@code _} is escaped as {@code __} and {@code $} as {@code _1}
+     * so that two distinct classes never map to the same accessor.
+     *
+     * @param className binary name of the class
+     * @return the name of the generated accessor class
+     */
+    public static String generatedClassName(String className) {
+        final int start = className.lastIndexOf('.') + 1;
+        final StringBuilder sb = new StringBuilder(className.length() + SUFFIX.length() + 4).append(className, 0, start);
+        for (int i = start; i < className.length(); i++) {
+            final char c = className.charAt(i);
+            if (c == '_') {
+                sb.append("__");
+            } else if (c == '$') {
+                sb.append("_1");
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append(SUFFIX).toString();
+    }
+
+    private static GeneratedAccessor<?> load(Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || type.getClassLoader() == null) {
+            return null;
+        }
+        try {
+            final Class<?> generated = Class.forName(generatedClassName(type.getName()), true, type.getClassLoader());
+            if (!GeneratedAccessor.class.isAssignableFrom(generated)) {
+                return null;
+            }
+            final GeneratedAccessor<?> accessor = (GeneratedAccessor<?>) generated.getConstructor().newInstance();
+            return accessor.type() == type ? accessor : null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+}
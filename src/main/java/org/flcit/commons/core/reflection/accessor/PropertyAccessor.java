@@ -0,0 +1,447 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.reflection.accessor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import org.flcit.commons.core.reflection.metadata.ClassMetadata;
+import org.flcit.commons.core.reflection.metadata.SoftClassValue;
+import org.flcit.commons.core.util.ClassUtils;
+
+/**
+ * Accessor of a field compiled once into {@link MethodHandle}s: the field is made accessible
+ * a single time, and the primitive views ({@link #intGetter()}, {@link #intSetter()}...) read and write
+ * the field without boxing.
+ * <p>When a {@link GeneratedAccessor} was generated for the declaring class, it is used instead of reflection.
+ * <p>Accessors are cached per field in a {@link SoftClassValue} of the declaring class.
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+public final class PropertyAccessor {
+
+    private static final SoftClassValue<ConcurrentMap<Field, PropertyAccessor>> CACHE = new SoftClassValue<ConcurrentMap<Field, PropertyAccessor>>() {
+        @Override
+        protected ConcurrentMap<Field, PropertyAccessor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private static final String ACCESS_ERROR_MESSAGE = "Could not access method or field: ";
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final Class<?>[] NUMERIC_TYPES = { byte.class, short.class, int.class, long.class, float.class, double.class };
+    private static final Class<?>[] NUMERIC_WRAPPERS = { Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class };
+
+    private final Field field;
+    private final GeneratedAccessor<Object> generated;
+    private final int index;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    private final MethodHandle rawGetter;
+    private final MethodHandle rawSetter;
+
+    private PropertyAccessor(Field field, GeneratedAccessor<Object> generated, int index) {
+        this.field = field;
+        this.generated = generated;
+        this.index = index;
+        this.getter = null;
+        this.setter = null;
+        this.rawGetter = null;
+        this.rawSetter = null;
+    }
+
+    private PropertyAccessor(Field field) {
+        this.field = field;
+        this.generated = null;
+        this.index = -1;
+        makeAccessible(field);
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final boolean isStatic = Modifier.isStatic(field.getModifiers());
+        try {
+            MethodHandle get = lookup.unreflectGetter(field);
+            if (isStatic) {
+                get = MethodHandles.dropArguments(get, 0, Object.class);
+            }
+            this.rawGetter = get.asType(MethodType.methodType(field.getType(), Object.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(ACCESS_ERROR_MESSAGE + e.getMessage());
+        }
+        this.getter = rawGetter.asType(GETTER_TYPE);
+        MethodHandle set = null;
+        if (!(isStatic && Modifier.isFinal(field.getModifiers()))) {
+            try {
+                set = lookup.unreflectSetter(field);
+                if (isStatic) {
+                    set = MethodHandles.dropArguments(set, 0, Object.class);
+                }
+                set = set.asType(MethodType.methodType(void.class, Object.class, field.getType()));
+            } catch (IllegalAccessException e) {
+                set = null;
+            }
+        }
+        this.rawSetter = set;
+        this.setter = set != null ? set.asType(SETTER_TYPE) : null;
+    }
+
+    @SuppressWarnings("java:S3011")
+    private static void makeAccessible(Field field) {
+        if ((!Modifier.isPublic(field.getModifiers()) ||
+                !Modifier.isPublic(field.getDeclaringClass().getModifiers()) ||
+                Modifier.isFinal(field.getModifiers()))) {
+            field.setAccessible(true);
+        }
+    }
+
+    /**
+     * @param field
+     * @return the cached accessor of the field
+     */
+    public static PropertyAccessor of(Field field) {
+        return CACHE.get(field.getDeclaringClass()).computeIfAbsent(field, PropertyAccessor::create);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PropertyAccessor create(Field field) {
+        if (!Modifier.isStatic(field.getModifiers())) {
+            final GeneratedAccessor<Object> generated = (GeneratedAccessor<Object>) GeneratedAccessors.find(field.getDeclaringClass());
+            if (generated != null) {
+                final String[] names = generated.names();
+                for (int i = 0; i < names.length; i++) {
+                    if (names[i].equals(field.getName())) {
+                        return new PropertyAccessor(field, generated, i);
+                    }
+                }
+            }
+        }
+        return new PropertyAccessor(field);
+    }
+
+    /**
+     * @param clazz
+     * @param name
+     * @return the cached accessor of the field or null if the class has no field with this name
+     */
+    public static PropertyAccessor of(Class<?> clazz, String name) {
+        final Field field = ClassMetadata.of(clazz).findField(name, null);
+        return field != null ? of(field) : null;
+    }
+
+    /**
+     * @return
+     */
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * @return
+     */
+    public String getName() {
+        return field.getName();
+    }
+
+    /**
+     * @return
+     */
+    public Class<?> getType() {
+        return field.getType();
+    }
+
+    /**
+     * @return
+     */
+    public boolean isWritable() {
+        return generated != null ? generated.isWritable(index) : setter != null;
+    }
+
+    /**
+     * @param target
+     * @return
+     */
+    @SuppressWarnings("java:S1181")
+    public Object get(Object target) {
+        if (generated != null) {
+            return generated.get(cast(target), index);
+        }
+        try {
+            return getter.invokeExact(target);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * @param target
+     * @param value
+     */
+    @SuppressWarnings("java:S1181")
+    public void set(Object target, Object value) {
+        checkWritable();
+        if (value == null && field.getType().isPrimitive()) {
+            throw new IllegalArgumentException("Can not set " + field.getType().getName() + " field "
+                    + field.getDeclaringClass().getName() + "." + field.getName() + " to null value");
+        }
+        if (generated != null) {
+            try {
+                generated.set(cast(target), index, widen(value));
+            } catch (ClassCastException e) {
+                throw rethrow(e);
+            }
+            return;
+        }
+        try {
+            setter.invokeExact(target, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * @return
+     */
+    public Function<Object, Object> getter() {
+        return this::get;
+    }
+
+    /**
+     * @return
+     */
+    public BiConsumer<Object, Object> setter() {
+        checkWritable();
+        return this::set;
+    }
+
+    /**
+     * @return
+     */
+    @SuppressWarnings("java:S1181")
+    public ToIntFunction<Object> intGetter() {
+        if (generated != null) {
+            checkPrimitive(int.class);
+            return target -> number(target).intValue();
+        }
+        final MethodHandle handle = primitiveGetter(int.class);
+        return target -> {
+            try {
+                return (int) handle.invokeExact(target);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    /**
+     * @return
+     */
+    @SuppressWarnings("java:S1181")
+    public ToLongFunction<Object> longGetter() {
+        if (generated != null) {
+            checkPrimitive(long.class);
+            return target -> number(target).longValue();
+        }
+        final MethodHandle handle = primitiveGetter(long.class);
+        return target -> {
+            try {
+                return (long) handle.invokeExact(target);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    /**
+     * @return
+     */
+    @SuppressWarnings("java:S1181")
+    public ToDoubleFunction<Object> doubleGetter() {
+        if (generated != null) {
+            checkPrimitive(double.class);
+            return target -> number(target).doubleValue();
+        }
+        final MethodHandle handle = primitiveGetter(double.class);
+        return target -> {
+            try {
+                return (double) handle.invokeExact(target);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    /**
+     * @return
+     */
+    @SuppressWarnings("java:S1181")
+    public ObjIntConsumer<Object> intSetter() {
+        final MethodHandle handle = primitiveSetter(int.class);
+        if (handle == null) {
+            return this::set;
+        }
+        return (target, value) -> {
+            try {
+                handle.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    /**
+     * @return
+     */
+    @SuppressWarnings("java:S1181")
+    public ObjLongConsumer<Object> longSetter() {
+        final MethodHandle handle = primitiveSetter(long.class);
+        if (handle == null) {
+            return this::set;
+        }
+        return (target, value) -> {
+            try {
+                handle.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    /**
+     * @return
+     */
+    @SuppressWarnings("java:S1181")
+    public ObjDoubleConsumer<Object> doubleSetter() {
+        final MethodHandle handle = primitiveSetter(double.class);
+        if (handle == null) {
+            return this::set;
+        }
+        return (target, value) -> {
+            try {
+                handle.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    private MethodHandle primitiveGetter(Class<?> type) {
+        checkPrimitive(type);
+        return rawGetter.asType(MethodType.methodType(type, Object.class));
+    }
+
+    /**
+     * Same widening rules on both paths: the field must be a primitive convertible
+     * to {@code type} without loss (boolean never is).
+     */
+    private void checkPrimitive(Class<?> type) {
+        final Class<?> fieldType = field.getType();
+        if (!fieldType.isPrimitive()
+                || fieldType == boolean.class
+                || (type != double.class && (fieldType == float.class || fieldType == double.class))
+                || (type == int.class && fieldType == long.class)) {
+            throw new IllegalStateException("Field " + field.getName() + " can not be read as " + type.getName() + ": " + fieldType.getName());
+        }
+    }
+
+    private Number number(Object target) {
+        final Object value = get(target);
+        return value instanceof Character ? Integer.valueOf((Character) value) : (Number) value;
+    }
+
+    private MethodHandle primitiveSetter(Class<?> type) {
+        checkWritable();
+        if (field.getType() != type) {
+            throw new IllegalStateException("Field " + field.getName() + " is not of type " + type.getName());
+        }
+        return rawSetter;
+    }
+
+    /**
+     * Same widening primitive conversions as the {@link MethodHandle} path (and {@link Field#set(Object, Object)}),
+     * for the generated accessors which only accept the boxed type of the field.
+     */
+    private Object widen(Object value) {
+        final Class<?> type = field.getType();
+        if (!type.isPrimitive() || value == null || ClassUtils.objectClass(type).isInstance(value)) {
+            return value;
+        }
+        final int to = indexOf(NUMERIC_TYPES, type);
+        // char widens as short does, but not to short
+        final int from = value instanceof Character ? 1 : indexOf(NUMERIC_WRAPPERS, value.getClass());
+        if (to < 0 || from < 0 || from >= to) {
+            throw new IllegalArgumentException("Can not set " + type.getName() + " field "
+                    + field.getDeclaringClass().getName() + "." + field.getName() + " to " + value.getClass().getName());
+        }
+        final Number number = value instanceof Character ? Integer.valueOf((Character) value) : (Number) value;
+        switch (to) {
+        case 1: return number.shortValue();
+        case 2: return number.intValue();
+        case 3: return number.longValue();
+        case 4: return number.floatValue();
+        default: return number.doubleValue();
+        }
+    }
+
+    private static int indexOf(Class<?>[] types, Class<?> type) {
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == type) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Object cast(Object target) {
+        if (target != null && !field.getDeclaringClass().isInstance(target)) {
+            throw new IllegalArgumentException("Can not access field " + field + " on " + target.getClass().getName());
+        }
+        return target;
+    }
+
+    private void checkWritable() {
+        if (!isWritable()) {
+            throw new IllegalStateException(ACCESS_ERROR_MESSAGE + field);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof ClassCastException) {
+            return new IllegalArgumentException(e.getMessage(), e);
+        }
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new UndeclaredThrowableException(e);
+    }
+
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.reflection.converter;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.flcit.commons.core.annotation.EnumConverter;
+import org.flcit.commons.core.reflection.metadata.SoftClassValue;
+import org.flcit.commons.core.util.BooleanUtils;
+import org.flcit.commons.core.util.ClassUtils;
+import org.flcit.commons.core.util.DateUtils;
+import org.flcit.commons.core.util.NumberUtils;
+import org.flcit.commons.core.util.ReflectionUtils;
+
+/**
+ * Registry of value converters by source class and target class.
+ * <p>A converter is resolved once per type pair, then cached (in a {@link SoftClassValue} of the source class):
+ * identity if the target is assignable from the source, converter registered for the source class
+ * or its nearest supertype, {@link EnumCodec} for enums annotated with {@link EnumConverter}
+ * (in both directions) or {@link Enum#valueOf(Class, String)} / {@link Enum#name()} for other enums, then a constructor or a static
+ * {@code valueOf} method of the target taking the source.
+ * <p>A value that can not be converted (e.g. unparsable or out of the range of the target) always fails with an
+ * {@link IllegalArgumentException}, whatever the converter: the exception of a registered converter that is not one
+ * and the exception thrown by a constructor or a {@code valueOf} method are wrapped as its cause.
+ * <p>The default registry holds the built-ins for numbers, booleans, enums, dates and strings.
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+public class ConverterRegistry {
+
+    private static final Function<Object, Object> IDENTITY = v -> v;
+    private static final Function<Object, Object> NONE = v -> null;
+    private static final Function<Object, Object> ENUM_NAME = v -> ((Enum<?>) v).name();
+    private static final ConverterRegistry DEFAULT = new ConverterRegistry(true);
+
+    private final Map<Class<?>, Map<Class<?>, Function<Object, Object>>> registered = new ConcurrentHashMap<>();
+    private volatile SoftClassValue<ConcurrentMap<Class<?>, Function<Object, Object>>> resolved = newCache();
+
+    /**
+     * Empty registry.
+     */
+    public ConverterRegistry() {
+        this(false);
+    }
+
+    /**
+     * @param builtIns register the built-in converters
+     */
+    public ConverterRegistry(boolean builtIns) {
+        if (builtIns) {
+            registerBuiltIns();
+        }
+    }
+
+    /**
+     * @return the registry used by {@link ReflectionUtils#convert(Object, Class)}
+     */
+    public static ConverterRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    private static SoftClassValue<ConcurrentMap<Class<?>, Function<Object, Object>>> newCache() {
+        return new SoftClassValue<ConcurrentMap<Class<?>, Function<Object, Object>>>() {
+            @Override
+            protected ConcurrentMap<Class<?>, Function<Object, Object>> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+    }
+
+    /**
+     * Register (or replace) the converter of a type pair; also applies to the subtypes of the source.
+     * <p>Converters already returned by {@link #find(Class, Class)} (e.g. captured by a cached
+     * {@link org.flcit.commons.core.reflection.copier.BeanCopier BeanCopier}) are not updated:
+     * register the converters before the first conversions.
+     * @param <S>
+     * @param <T>
+     * @param source
+     * @param target
+     * @param converter
+     * @return this registry
+     */
+    @SuppressWarnings("unchecked")
+    public <S, T> ConverterRegistry register(Class<S> source, Class<T> target, Function<? super S, ? extends T> converter) {
+        return put(source, target, (Function<Object, Object>) converter);
+    }
+
+    private ConverterRegistry put(Class<?> source, Class<?> target, Function<Object, Object> converter) {
+        registered.computeIfAbsent(ClassUtils.objectClass(source), k -> new ConcurrentHashMap<>())
+            .put(ClassUtils.objectClass(target), converter);
+        resolved = newCache();
+        return this;
+    }
+
+    /**
+     * @param <T>
+     * @param value
+     * @param target
+     * @return the converted value or null if the value is null or no converter exists
+     * @throws IllegalArgumentException if the value can not be converted
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T convert(Object value, Class<T> target) {
+        if (value == null || target == null) {
+            return (T) value;
+        }
+        return (T) find(value.getClass(), target).apply(value);
+    }
+
+    /**
+     * @param source
+     * @param target
+     * @return the cached converter of the pair, never null: when no conversion exists,
+     * it converts every value to null (see {@link #canConvert(Class, Class)})
+     */
+    public Function<Object, Object> find(Class<?> source, Class<?> target) {
+        return resolved.get(source).computeIfAbsent(target, t -> resolve(source, t));
+    }
+
+    /**
+     * @param source
+     * @param target
+     * @return true if a conversion exists for the pair
+     */
+    public boolean canConvert(Class<?> source, Class<?> target) {
+        return find(source, target) != NONE;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Function<Object, Object> resolve(Class<?> sourceType, Class<?> targetType) {
+        final Class<?> source = ClassUtils.objectClass(sourceType);
+        final Class<?> target = ClassUtils.objectClass(targetType);
+        if (target.isAssignableFrom(source)) {
+            return IDENTITY;
+        }
+        final Function<Object, Object> converter = registered(source, target);
+        if (converter == ENUM_NAME) {
+            final Class<?> type = source.isEnum() ? source : source.getSuperclass();
+            if (type.isAnnotationPresent(EnumConverter.class)) {
+                final EnumCodec codec = EnumCodec.of((Class) type);
+                return v -> codec.encode((Enum) v);
+            }
+        }
+        if (converter != null) {
+            return guard(converter, target);
+        }
+        if (target.isEnum() && CharSequence.class.isAssignableFrom(source)) {
+            if (target.isAnnotationPresent(EnumConverter.class)) {
+                final EnumCodec<?> codec = EnumCodec.of((Class) target);
+                return guard(v -> codec.valueOf((CharSequence) v), target);
+            }
+            return v -> Enum.valueOf((Class) target, v.toString());
+        }
+        final Function<Object, Object> constructor = constructor(source, target);
+        return constructor != null ? constructor : valueOf(source, target);
+    }
+
+    private Function<Object, Object> registered(Class<?> source, Class<?> target) {
+        final Deque<Class<?>> queue = new ArrayDeque<>();
+        final Set<Class<?>> visited = new HashSet<>();
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            final Class<?> type = queue.poll();
+            if (!visited.add(type)) {
+                continue;
+            }
+            final Map<Class<?>, Function<Object, Object>> converters = registered.get(type);
+            final Function<Object, Object> converter = converters != null ? converters.get(target) : null;
+            if (converter != null) {
+                return converter;
+            }
+            if (type.getSuperclass() != null) {
+                queue.add(type.getSuperclass());
+            }
+            for (Class<?> i : type.getInterfaces()) {
+                queue.add(i);
+            }
+        }
+        return null;
+    }
+
+    private static Function<Object, Object> constructor(Class<?> source, Class<?> target) {
+        if (Modifier.isAbstract(target.getModifiers())) {
+            return null;
+        }
+        for (Class<?> parameter : parameters(source)) {
+            try {
+                final Constructor<?> constructor = target.getConstructor(parameter);
+                return v -> {
+                    try {
+                        return constructor.newInstance(v);
+                    } catch (InvocationTargetException e) {
+                        throw conversionError(v, target, e.getTargetException());
+                    } catch (ReflectiveOperationException e) {
+                        throw conversionError(v, target, e);
+                    }
+                };
+            } catch (NoSuchMethodException e) { /* DO NOTHING */ }
+        }
+        return null;
+    }
+
+    private static Function<Object, Object> valueOf(Class<?> source, Class<?> target) {
+        for (Class<?> parameter : parameters(source)) {
+            try {
+                final Method method = target.getMethod("valueOf", parameter);
+                if (Modifier.isStatic(method.getModifiers()) && target.isAssignableFrom(ClassUtils.objectClass(method.getReturnType()))) {
+                    return v -> {
+                        try {
+                            return method.invoke(null, v);
+                        } catch (InvocationTargetException e) {
+                            throw conversionError(v, target, e.getTargetException());
+                        } catch (ReflectiveOperationException e) {
+                            throw conversionError(v, target, e);
+                        }
+                    };
+                }
+            } catch (NoSuchMethodException e) { /* DO NOTHING */ }
+        }
+        return NONE;
+    }
+
+    private static Function<Object, Object> guard(Function<Object, Object> converter, Class<?> target) {
+        return v -> {
+            try {
+                return converter.apply(v);
+            } catch (IllegalArgumentException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                throw conversionError(v, target, e);
+            }
+        };
+    }
+
+    private static IllegalArgumentException conversionError(Object value, Class<?> target, Throwable cause) {
+        if (cause instanceof IllegalArgumentException) {
+            return (IllegalArgumentException) cause;
+        }
+        return new IllegalArgumentException("Can not convert " + value.getClass().getName() + " value to " + target.getName(), cause);
+    }
+
+    private static Byte toByte(Number value) {
+        // the double value keeps the magnitude of every number, where longValue() wraps big integers and decimals
+        final double d = value.doubleValue();
+        if (!(d > Byte.MIN_VALUE - 1 && d < Byte.MAX_VALUE + 1)) {
+            throw new IllegalArgumentException("Value " + value + " out of range of java.lang.Byte");
+        }
+        return value.byteValue();
+    }
+
+    private static Class<?>[] parameters(Class<?> source) {
+        final Class<?> primitive = primitiveClass(source);
+        return primitive != null ? new Class<?>[] { source, primitive } : new Class<?>[] { source };
+    }
+
+    private static Class<?> primitiveClass(Class<?> clazz) {
+        for (Class<?> primitive : new Class<?>[] { int.class, long.class, double.class, float.class, short.class, byte.class, char.class, boolean.class }) {
+            if (ClassUtils.objectClass(primitive) == clazz) {
+                return primitive;
+            }
+        }
+        return null;
+    }
+
+    private void registerBuiltIns() {
+        for (Class<?> number : new Class<?>[] { Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class, BigInteger.class, BigDecimal.class }) {
+            registerNumber(number.asSubclass(Number.class));
+        }
+        register(Number.class, Byte.class, ConverterRegistry::toByte);
+        register(Object.class, String.class, Object::toString);
+        put(Enum.class, String.class, ENUM_NAME);
+        register(Object.class, Boolean.class, BooleanUtils::convert);
+        register(Boolean.class, Integer.class, v -> v ? 1 : 0);
+        register(Date.class, LocalDate.class, DateUtils::convertToLocalDate);
+        register(Date.class, LocalDateTime.class, DateUtils::convertToLocalDateTime);
+        register(Date.class, LocalTime.class, DateUtils::convertToLocalTime);
+        register(Date.class, Timestamp.class, DateUtils::convertToTimestamp);
+        register(Date.class, Long.class, Date::getTime);
+        register(Long.class, Date.class, Date::new);
+        register(Long.class, Timestamp.class, Timestamp::new);
+        register(LocalDate.class, Date.class, v -> Date.from(v.atStartOfDay(ZoneId.systemDefault()).toInstant()));
+        register(LocalDateTime.class, Date.class, v -> Date.from(v.atZone(ZoneId.systemDefault()).toInstant()));
+        register(LocalDateTime.class, Timestamp.class, Timestamp::valueOf);
+        register(Timestamp.class, LocalDateTime.class, Timestamp::toLocalDateTime);
+        register(CharSequence.class, LocalDate.class, LocalDate::parse);
+        register(CharSequence.class, LocalDateTime.class, LocalDateTime::parse);
+        register(CharSequence.class, LocalTime.class, LocalTime::parse);
+    }
+
+    private <T extends Number> void registerNumber(Class<T> number) {
+        register(String.class, number, v -> NumberUtils.convert(v, number));
+        register(Number.class, number, v -> NumberUtils.convert(v, number));
+    }
+
+}
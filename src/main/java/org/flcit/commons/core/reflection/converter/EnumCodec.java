@@ -0,0 +1,212 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.reflection.converter;
+
+import java.util.Arrays;
+
+import org.flcit.commons.core.annotation.EnumConverter;
+import org.flcit.commons.core.reflection.metadata.SoftClassValue;
+
+/**
+ * Text codec of an enum class, configured by its {@link EnumConverter} annotation (read once)
+ * and cached per class in a {@link SoftClassValue}.
+ * <p>Constants are encoded with their {@code toString()}, precomputed by ordinal.
+ * Decoding matches the {@code toString()} of the constants (ignoring case if {@link EnumConverter#ignoreCase()}),
+ * then their name if {@link EnumConverter#nameIfNoMatch()}, through open addressing tables
+ * hashed and compared directly on the {@link CharSequence} characters: a slice of a parser buffer
+ * is decoded without creating a {@link String}.
+ *
+ * @param <T>
+ * @since 
+ * @author Florian Lestic
+ */
+public final class EnumCodec<T extends Enum<T>> {
+
+    private static final SoftClassValue<EnumCodec<?>> CACHE = new SoftClassValue<EnumCodec<?>>() {
+        @Override
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        protected EnumCodec<?> computeValue(Class<?> type) {
+            return new EnumCodec(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final T[] values;
+    private final String[] encoded;
+    private final boolean ignoreCase;
+    private final boolean nameIfNoMatch;
+    private final Table<T> byToString;
+    private final Table<T> byName;
+
+    private EnumCodec(Class<T> type) {
+        this.type = type;
+        this.values = type.getEnumConstants();
+        final EnumConverter converter = type.getAnnotation(EnumConverter.class);
+        this.ignoreCase = converter != null && converter.ignoreCase();
+        this.nameIfNoMatch = converter != null && converter.nameIfNoMatch();
+        this.encoded = new String[values.length];
+        final String[] names = new String[values.length];
+        for (T value : values) {
+            encoded[value.ordinal()] = value.toString();
+            names[value.ordinal()] = value.name();
+        }
+        this.byToString = new Table<>(encoded, values, ignoreCase);
+        this.byName = nameIfNoMatch ? new Table<>(names, values, ignoreCase) : null;
+    }
+
+    /**
+     * @param <T>
+     * @param clazz
+     * @return the cached codec of the enum class
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Enum<T>> EnumCodec<T> of(Class<T> clazz) {
+        if (!clazz.isEnum()) {
+            throw new IllegalArgumentException("Not an enum class: " + clazz.getName());
+        }
+        return (EnumCodec<T>) CACHE.get(clazz);
+    }
+
+    /**
+     * @return
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * @return
+     */
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    /**
+     * @return
+     */
+    public boolean isNameIfNoMatch() {
+        return nameIfNoMatch;
+    }
+
+    /**
+     * @param value
+     * @return the text of the constant or null
+     */
+    public String encode(T value) {
+        return value == null ? null : encoded[value.ordinal()];
+    }
+
+    /**
+     * @param value
+     * @return the constant or null if the text is null or matches no constant
+     */
+    public T decode(CharSequence value) {
+        return value == null ? null : decode(value, 0, value.length());
+    }
+
+    /**
+     * @param value
+     * @param start inclusive
+     * @param end exclusive
+     * @return the constant or null if the text matches no constant
+     */
+    public T decode(CharSequence value, int start, int end) {
+        final T res = byToString.get(value, start, end);
+        return res == null && byName != null ? byName.get(value, start, end) : res;
+    }
+
+    /**
+     * @param value
+     * @return the constant
+     * @throws IllegalArgumentException if the text matches no constant
+     */
+    public T valueOf(CharSequence value) {
+        final T res = decode(value);
+        if (res == null && value != null) {
+            throw new IllegalArgumentException("No enum constant " + type.getCanonicalName() + "." + value);
+        }
+        return res;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static final class Table<T> {
+
+        private final String[] keys;
+        private final T[] values;
+        private final int mask;
+        private final boolean ignoreCase;
+
+        @SuppressWarnings("unchecked")
+        private Table(String[] keys, T[] values, boolean ignoreCase) {
+            int size = Integer.highestOneBit(Math.max(keys.length, 1) * 2 - 1) << 1;
+            this.keys = new String[size];
+            this.values = (T[]) Arrays.copyOf(values, size, values.getClass());
+            Arrays.fill(this.values, null);
+            this.mask = size - 1;
+            this.ignoreCase = ignoreCase;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null && get(keys[i], 0, keys[i].length()) == null) {
+                    int slot = hash(keys[i], 0, keys[i].length()) & mask;
+                    while (this.keys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    this.keys[slot] = keys[i];
+                    this.values[slot] = values[i];
+                }
+            }
+        }
+
+        private int hash(CharSequence value, int start, int end) {
+            int h = 0;
+            for (int i = start; i < end; i++) {
+                h = 31 * h + (ignoreCase ? fold(value.charAt(i)) : value.charAt(i));
+            }
+            return h ^ (h >>> 16);
+        }
+
+        private boolean matches(String key, CharSequence value, int start, int end) {
+            if (key.length() != end - start) {
+                return false;
+            }
+            for (int i = 0; i < key.length(); i++) {
+                final char c1 = key.charAt(i);
+                final char c2 = value.charAt(start + i);
+                if (c1 != c2 && (!ignoreCase || fold(c1) != fold(c2))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private T get(CharSequence value, int start, int end) {
+            int slot = hash(value, start, end) & mask;
+            String key;
+            while ((key = keys[slot]) != null) {
+                if (matches(key, value, start, end)) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+    }
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.reflection.copier;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.flcit.commons.core.annotation.Column;
+import org.flcit.commons.core.reflection.accessor.PropertyAccessor;
+import org.flcit.commons.core.reflection.converter.ConverterRegistry;
+import org.flcit.commons.core.reflection.metadata.ClassMetadata;
+import org.flcit.commons.core.reflection.metadata.SoftClassValue;
+import org.flcit.commons.core.util.ClassUtils;
+import org.flcit.commons.core.util.ObjectUtils;
+import org.flcit.commons.core.util.StringUtils;
+
+/**
+ * Copier of the properties of a source class to a target class, with the mappings computed once:
+ * a target field is matched to the source field of the same {@link Column} value or name,
+ * and the value converter (explicit or from the default {@link ConverterRegistry}) is resolved per mapping.
+ * <p>Converters are captured when the copier is created: a converter registered later in the default registry
+ * does not apply to an already cached copier.
+ *
+ * @param <S>
+ * @param <T>
+ * @since 
+ * @author Florian Lestic
+ */
+public final class BeanCopier<S, T> {
+
+    private static final SoftClassValue<ConcurrentMap<Class<?>, BeanCopier<?, ?>>> CACHE = new SoftClassValue<ConcurrentMap<Class<?>, BeanCopier<?, ?>>>() {
+        @Override
+        protected ConcurrentMap<Class<?>, BeanCopier<?, ?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final Class<T> targetClass;
+    private final boolean ignoreNull;
+    private final boolean ignoreEmpty;
+    private final Mapping[] mappings;
+    private volatile Constructor<T> constructor;
+
+    /**
+     * @param sourceClass
+     * @param targetClass
+     */
+    public BeanCopier(Class<S> sourceClass, Class<T> targetClass) {
+        this(sourceClass, targetClass, false, false, null);
+    }
+
+    /**
+     * @param sourceClass
+     * @param targetClass
+     * @param ignoreNull do not copy the null values
+     * @param ignoreEmpty do not copy the empty values ({@link ObjectUtils#isEmpty(Object)}), merge mode
+     * @param converters converters of the source values by target field name (may be null)
+     */
+    public BeanCopier(Class<S> sourceClass, Class<T> targetClass, boolean ignoreNull, boolean ignoreEmpty, Map<String, Function<Object, ?>> converters) {
+        this.targetClass = targetClass;
+        this.ignoreNull = ignoreNull || ignoreEmpty;
+        this.ignoreEmpty = ignoreEmpty;
+        final Map<String, PropertyAccessor> sources = sources(sourceClass);
+        final Map<String, Function<Object, ?>> explicit = converters != null ? converters : Collections.emptyMap();
+        final List<Mapping> list = new ArrayList<>();
+        for (Field field : ClassMetadata.of(targetClass).getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+                continue;
+            }
+            final String column = column(field);
+            PropertyAccessor source = column != null ? sources.get(column) : null;
+            if (source == null) {
+                source = sources.get(field.getName());
+            }
+            final PropertyAccessor target = PropertyAccessor.of(field);
+            if (source != null && target.isWritable()) {
+                final Function<Object, ?> converter = explicit.get(field.getName());
+                list.add(new Mapping(source, target, converter != null ? converter : converter(source.getType(), target.getType())));
+            }
+        }
+        this.mappings = list.toArray(new Mapping[0]);
+    }
+
+    /**
+     * @param <S>
+     * @param <T>
+     * @param sourceClass
+     * @param targetClass
+     * @return the cached copier without options
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, T> BeanCopier<S, T> of(Class<S> sourceClass, Class<T> targetClass) {
+        return (BeanCopier<S, T>) CACHE.get(sourceClass).computeIfAbsent(targetClass, k -> new BeanCopier<>(sourceClass, targetClass));
+    }
+
+    private static Map<String, PropertyAccessor> sources(Class<?> sourceClass) {
+        final Field[] fields = ClassMetadata.of(sourceClass).getFields();
+        final Map<String, PropertyAccessor> res = new HashMap<>(fields.length * 2);
+        for (Field field : fields) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            final PropertyAccessor accessor = PropertyAccessor.of(field);
+            final String column = column(field);
+            if (column != null) {
+                res.putIfAbsent(column, accessor);
+            }
+            res.putIfAbsent(field.getName(), accessor);
+        }
+        return res;
+    }
+
+    private static String column(Field field) {
+        final Column column = field.getAnnotation(Column.class);
+        return column != null && StringUtils.hasLength(column.value()) ? column.value() : null;
+    }
+
+    private static Function<Object, ?> converter(Class<?> sourceType, Class<?> targetType) {
+        if (ClassUtils.objectClass(targetType).isAssignableFrom(ClassUtils.objectClass(sourceType))) {
+            return null;
+        }
+        final ConverterRegistry registry = ConverterRegistry.getDefault();
+        return sourceType.isPrimitive() || Modifier.isFinal(sourceType.getModifiers())
+                ? registry.find(sourceType, targetType)
+                : value -> registry.convert(value, targetType);
+    }
+
+    /**
+     * @param source
+     * @return a new instance (created with the no-arg constructor) of the target class
+     */
+    public T copy(S source) {
+        return source == null ? null : copy(source, newInstance());
+    }
+
+    /**
+     * @param source
+     * @param target
+     * @return the target
+     */
+    public T copy(S source, T target) {
+        if (source == null || target == null) {
+            return target;
+        }
+        for (Mapping mapping : mappings) {
+            Object value = mapping.source.get(source);
+            if ((ignoreNull && value == null) || (ignoreEmpty && ObjectUtils.isEmpty(value))) {
+                continue;
+            }
+            if (value != null && mapping.converter != null) {
+                value = mapping.converter.apply(value);
+                if (ignoreNull && value == null) {
+                    continue;
+                }
+            }
+            if (value != null || !mapping.target.getType().isPrimitive()) {
+                mapping.target.set(target, value);
+            }
+        }
+        return target;
+    }
+
+    @SuppressWarnings("java:S3011")
+    private T newInstance() {
+        try {
+            Constructor<T> c = constructor;
+            if (c == null) {
+                c = targetClass.getDeclaredConstructor();
+                c.setAccessible(true);
+                constructor = c;
+            }
+            return c.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not instantiate " + targetClass.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static final class Mapping {
+
+        private final PropertyAccessor source;
+        private final PropertyAccessor target;
+        private final Function<Object, ?> converter;
+
+        private Mapping(PropertyAccessor source, PropertyAccessor target, Function<Object, ?> converter) {
+            this.source = source;
+            this.target = target;
+            this.converter = converter;
+        }
+
+    }
+
+}
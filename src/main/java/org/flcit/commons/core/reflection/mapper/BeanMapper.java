@@ -0,0 +1,217 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.reflection.mapper;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.flcit.commons.core.reflection.accessor.PropertyAccessor;
+import org.flcit.commons.core.reflection.metadata.ClassMetadata;
+import org.flcit.commons.core.reflection.metadata.SoftClassValue;
+import org.flcit.commons.core.util.ObjectUtils;
+import org.flcit.commons.core.util.ReflectionUtils;
+
+/**
+ * Bean to {@link Map} (and reverse) converter precompiled per class and naming annotation:
+ * the names (field name or annotation value) and the accessors of the fields are resolved once,
+ * and the output map is presized.
+ * <p>The fields are taken from the class to its superclasses, a superclass field overriding a subclass field
+ * of the same name, as {@link ReflectionUtils#toMap(Object, boolean, boolean, Class, String)} does.
+ *
+ * @param <T>
+ * @since 
+ * @author Florian Lestic
+ */
+public final class BeanMapper<T> {
+
+    private static final SoftClassValue<ConcurrentMap<Key, BeanMapper<?>>> CACHE = new SoftClassValue<ConcurrentMap<Key, BeanMapper<?>>>() {
+        @Override
+        protected ConcurrentMap<Key, BeanMapper<?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final Class<T> type;
+    private final String[] names;
+    private final PropertyAccessor[] accessors;
+    private final int capacity;
+    private final Map<String, PropertyAccessor> writables;
+    private volatile Constructor<T> constructor;
+
+    private BeanMapper(Class<T> type, Class<? extends Annotation> annotationNameClass, String annotationNameField) {
+        this.type = type;
+        final Field[] fields = ClassMetadata.of(type).getFields();
+        this.names = new String[fields.length];
+        this.accessors = new PropertyAccessor[fields.length];
+        this.writables = new HashMap<>();
+        for (int i = 0; i < fields.length; i++) {
+            names[i] = getName(fields[i], annotationNameClass, annotationNameField);
+            accessors[i] = PropertyAccessor.of(fields[i]);
+            if (!Modifier.isStatic(fields[i].getModifiers())
+                    && !Modifier.isFinal(fields[i].getModifiers())
+                    && accessors[i].isWritable()) {
+                writables.put(names[i], accessors[i]);
+            }
+        }
+        this.capacity = (int) (fields.length / 0.75f) + 1;
+    }
+
+    /**
+     * @param <T>
+     * @param type
+     * @return the cached mapper naming the entries by field name
+     */
+    public static <T> BeanMapper<T> of(Class<T> type) {
+        return of(type, null, null);
+    }
+
+    /**
+     * @param <T>
+     * @param type
+     * @param annotationNameClass annotation giving the name of the entry (may be null)
+     * @param annotationNameField member of the annotation holding the name
+     * @return the cached mapper
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BeanMapper<T> of(Class<T> type, Class<? extends Annotation> annotationNameClass, String annotationNameField) {
+        return (BeanMapper<T>) CACHE.get(type).computeIfAbsent(new Key(annotationNameClass, annotationNameField),
+                k -> new BeanMapper<>(type, annotationNameClass, annotationNameField));
+    }
+
+    private static String getName(Field field, Class<? extends Annotation> annotationClass, String annotationField) {
+        if (annotationClass == null) {
+            return field.getName();
+        }
+        return (String) ObjectUtils.getOrDefault(ReflectionUtils.getSafeAnnotationValue(field.getAnnotation(annotationClass), annotationField), field.getName());
+    }
+
+    /**
+     * @return
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * @param object
+     * @param nullValue include the null values
+     * @param emptyValue include the empty values
+     * @return
+     */
+    @SuppressWarnings("java:S1168")
+    public Map<String, Object> toMap(T object, boolean nullValue, boolean emptyValue) {
+        if (object == null) {
+            return null;
+        }
+        final Map<String, Object> result = new HashMap<>(capacity);
+        for (int i = 0; i < accessors.length; i++) {
+            final Object value = accessors[i].get(object);
+            if ((nullValue || value != null)
+                    && (emptyValue || !ObjectUtils.isEmpty(value))) {
+                result.put(names[i], value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param map
+     * @return a new instance (created with the no-arg constructor) filled with the entries of the map
+     */
+    public T fromMap(Map<String, ?> map) {
+        if (map == null) {
+            return null;
+        }
+        final T target = newInstance();
+        fromMap(map, target);
+        return target;
+    }
+
+    /**
+     * Set the fields of the target from the entries of the map matching their name,
+     * the values being converted to the field type if needed.
+     * @param map
+     * @param target
+     */
+    public void fromMap(Map<String, ?> map, T target) {
+        if (map == null || target == null) {
+            return;
+        }
+        for (Map.Entry<String, ?> entry : map.entrySet()) {
+            final PropertyAccessor accessor = writables.get(entry.getKey());
+            if (accessor == null) {
+                continue;
+            }
+            final Object value = ReflectionUtils.convert(entry.getValue(), accessor.getType());
+            if (value != null || !accessor.getType().isPrimitive()) {
+                accessor.set(target, value);
+            }
+        }
+    }
+
+    @SuppressWarnings("java:S3011")
+    private T newInstance() {
+        try {
+            Constructor<T> c = constructor;
+            if (c == null) {
+                c = type.getDeclaredConstructor();
+                c.setAccessible(true);
+                constructor = c;
+            }
+            return c.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not instantiate " + type.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static final class Key {
+
+        private final Class<? extends Annotation> annotationClass;
+        private final String annotationField;
+
+        private Key(Class<? extends Annotation> annotationClass, String annotationField) {
+            this.annotationClass = annotationClass;
+            this.annotationField = annotationClass != null ? annotationField : null;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return annotationClass == other.annotationClass && Objects.equals(annotationField, other.annotationField);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(annotationClass, annotationField);
+        }
+
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.reflection.metadata;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Accessor of an annotation member compiled once into a {@link MethodHandle},
+ * cached per annotation type (in a {@link SoftClassValue}) and member name.
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+public final class AnnotationAttribute {
+
+    private static final SoftClassValue<ConcurrentMap<String, AnnotationAttribute>> CACHE = new SoftClassValue<ConcurrentMap<String, AnnotationAttribute>>() {
+        @Override
+        protected ConcurrentMap<String, AnnotationAttribute> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private static final AnnotationAttribute MISSING = new AnnotationAttribute(null, null);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Annotation.class);
+
+    private final String name;
+    private final MethodHandle handle;
+
+    private AnnotationAttribute(String name, MethodHandle handle) {
+        this.name = name;
+        this.handle = handle;
+    }
+
+    /**
+     * @param annotationType
+     * @param name
+     * @return the cached accessor of the member or null if the annotation type has no member with this name
+     */
+    public static AnnotationAttribute of(Class<? extends Annotation> annotationType, String name) {
+        final AnnotationAttribute attribute = CACHE.get(annotationType).computeIfAbsent(name, n -> compile(annotationType, n));
+        return attribute == MISSING ? null : attribute;
+    }
+
+    @SuppressWarnings("java:S3011")
+    private static AnnotationAttribute compile(Class<? extends Annotation> annotationType, String name) {
+        try {
+            final Method method = annotationType.getMethod(name);
+            if (!Modifier.isPublic(annotationType.getModifiers())) {
+                method.setAccessible(true);
+            }
+            return new AnnotationAttribute(name, MethodHandles.lookup().unreflect(method).asType(GETTER_TYPE));
+        } catch (NoSuchMethodException e) {
+            return MISSING;
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Could not access method or field: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param annotation
+     * @return the value of the member for the annotation
+     */
+    @SuppressWarnings("java:S1181")
+    public Object get(Annotation annotation) {
+        try {
+            return handle.invokeExact(annotation);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+}
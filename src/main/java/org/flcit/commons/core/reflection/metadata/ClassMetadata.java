@@ -0,0 +1,331 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.reflection.metadata;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reflection metadata of a class (fields by name and type, methods by name, getters, setters, annotated fields),
+ * computed once per class and cached in a {@link SoftClassValue}, so the cache never prevents a class from being unloaded.
+ * <p>The hierarchy is walked from the class to its superclasses, {@link Object} excluded,
+ * in the same order as the lookups of {@link org.flcit.commons.core.util.ReflectionUtils}.
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+public final class ClassMetadata {
+
+    private static final SoftClassValue<ClassMetadata> CACHE = new SoftClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata(type);
+        }
+    };
+
+    private static final String SET = "set";
+    private static final String GET = "get";
+    private static final String IS = "is";
+    private static final Field[] EMPTY_FIELD_ARRAY = new Field[0];
+
+    private final Class<?> type;
+    private final Field[] declaredFields;
+    private final Map<String, Field> declaredFieldsByName;
+    private final Field[] fields;
+    private final String[] fieldNames;
+    private final Map<String, Field[]> fieldsByName;
+    private final Map<Class<?>, Field> fieldsByType;
+    private final Map<String, MethodEntry[]> methodsByName;
+    private final Map<Field, Method> getters;
+    private final Map<Field, Method> setters;
+    private final ConcurrentMap<Class<? extends Annotation>, Field[]> fieldsByAnnotation = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<? extends Annotation>, Field[]> declaredFieldsByAnnotation = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<? extends Annotation>, ConcurrentMap<String, Map<Object, Field>>> declaredFieldsByAnnotationValue = new ConcurrentHashMap<>();
+
+    private ClassMetadata(Class<?> type) {
+        this.type = type;
+        this.declaredFields = type.getDeclaredFields();
+        this.declaredFieldsByName = new HashMap<>(capacity(declaredFields.length));
+        for (Field field : declaredFields) {
+            declaredFieldsByName.put(field.getName(), field);
+        }
+        final Class<?> superclass = type.getSuperclass();
+        final ClassMetadata parent = superclass != null && superclass != Object.class ? of(superclass) : null;
+        this.fields = parent == null ? declaredFields : concat(declaredFields, parent.fields);
+        this.fieldNames = new String[fields.length];
+        final Map<String, List<Field>> byName = new LinkedHashMap<>(capacity(fields.length));
+        this.fieldsByType = new HashMap<>(capacity(fields.length));
+        for (int i = 0; i < fields.length; i++) {
+            final Field field = fields[i];
+            fieldNames[i] = field.getName();
+            byName.computeIfAbsent(field.getName(), k -> new ArrayList<>(1)).add(field);
+            fieldsByType.putIfAbsent(field.getType(), field);
+        }
+        this.fieldsByName = new HashMap<>(capacity(byName.size()));
+        for (Map.Entry<String, List<Field>> entry : byName.entrySet()) {
+            fieldsByName.put(entry.getKey(), entry.getValue().toArray(EMPTY_FIELD_ARRAY));
+        }
+        this.methodsByName = methodsByName(type, parent);
+        this.getters = new HashMap<>(capacity(fields.length));
+        this.setters = new HashMap<>(capacity(fields.length));
+        for (Field field : fields) {
+            getters.put(field, findMethod(getterMethodName(field.getName(), field.getType())));
+            setters.put(field, findMethod(setterMethodName(field.getName()), field.getType()));
+        }
+    }
+
+    /**
+     * @param clazz
+     * @return the cached metadata of the class
+     */
+    public static ClassMetadata of(Class<?> clazz) {
+        return CACHE.get(clazz);
+    }
+
+    private static int capacity(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
+    private static Field[] concat(Field[] first, Field[] second) {
+        if (second.length == 0) {
+            return first;
+        }
+        final Field[] res = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, res, first.length, second.length);
+        return res;
+    }
+
+    private static Map<String, MethodEntry[]> methodsByName(Class<?> type, ClassMetadata parent) {
+        final Map<String, List<MethodEntry>> byName = new LinkedHashMap<>();
+        for (Method method : type.getDeclaredMethods()) {
+            byName.computeIfAbsent(method.getName(), k -> new ArrayList<>(1)).add(new MethodEntry(method));
+        }
+        if (parent != null) {
+            for (Map.Entry<String, MethodEntry[]> entry : parent.methodsByName.entrySet()) {
+                Collections.addAll(byName.computeIfAbsent(entry.getKey(), k -> new ArrayList<>(entry.getValue().length)), entry.getValue());
+            }
+        }
+        final Map<String, MethodEntry[]> res = new HashMap<>(capacity(byName.size()));
+        for (Map.Entry<String, List<MethodEntry>> entry : byName.entrySet()) {
+            res.put(entry.getKey(), entry.getValue().toArray(new MethodEntry[0]));
+        }
+        return res;
+    }
+
+    /**
+     * @param field
+     * @param type
+     * @return
+     */
+    public static String getterMethodName(String field, Class<?> type) {
+        return (boolean.class == type ? IS : GET) + Character.toUpperCase(field.charAt(0)) + field.substring(1);
+    }
+
+    /**
+     * @param field
+     * @return
+     */
+    public static String setterMethodName(String field) {
+        return SET + Character.toUpperCase(field.charAt(0)) + field.substring(1);
+    }
+
+    /**
+     * @return
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return the fields declared by the class (shared array, must not be modified)
+     */
+    public Field[] getDeclaredFields() {
+        return declaredFields;
+    }
+
+    /**
+     * @param name
+     * @return the field declared by the class or null
+     */
+    public Field getDeclaredField(String name) {
+        return declaredFieldsByName.get(name);
+    }
+
+    /**
+     * @return the fields of the class and its superclasses (shared array, must not be modified)
+     */
+    public Field[] getFields() {
+        return fields;
+    }
+
+    /**
+     * @return the names of the fields of the class and its superclasses (shared array, must not be modified)
+     */
+    public String[] getFieldNames() {
+        return fieldNames;
+    }
+
+    /**
+     * @param name
+     * @param fieldType
+     * @return the first field of the hierarchy matching the name and the type (each may be null)
+     */
+    public Field findField(String name, Class<?> fieldType) {
+        if (name == null) {
+            return fieldType == null ? first(fields) : fieldsByType.get(fieldType);
+        }
+        final Field[] candidates = fieldsByName.get(name);
+        if (candidates == null) {
+            return null;
+        }
+        if (fieldType == null) {
+            return candidates[0];
+        }
+        for (Field field : candidates) {
+            if (fieldType.equals(field.getType())) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private static Field first(Field[] fields) {
+        return fields.length == 0 ? null : fields[0];
+    }
+
+    /**
+     * @param name
+     * @param paramTypes
+     * @return the first method of the hierarchy matching the name and the parameter types
+     */
+    public Method findMethod(String name, Class<?>... paramTypes) {
+        final MethodEntry[] candidates = methodsByName.get(name);
+        if (candidates == null) {
+            return null;
+        }
+        final int count = paramTypes == null ? 0 : paramTypes.length;
+        MethodEntry res = null;
+        for (MethodEntry candidate : candidates) {
+            if (res != null && candidate.declaringClass != res.declaringClass) {
+                break;
+            }
+            if (candidate.parameterTypes.length == count
+                    && (count == 0 || Arrays.equals(candidate.parameterTypes, paramTypes))
+                    && (res == null || res.returnType.isAssignableFrom(candidate.returnType))) {
+                res = candidate;
+            }
+        }
+        return res == null ? null : res.method;
+    }
+
+    /**
+     * @param field
+     * @return the getter of the field or null
+     */
+    public Method getter(Field field) {
+        return getters.containsKey(field) ? getters.get(field) : findMethod(getterMethodName(field.getName(), field.getType()));
+    }
+
+    /**
+     * @param field
+     * @return the setter of the field or null
+     */
+    public Method setter(Field field) {
+        return setters.containsKey(field) ? setters.get(field) : findMethod(setterMethodName(field.getName()), field.getType());
+    }
+
+    /**
+     * @param annotationClass
+     * @return the fields of the hierarchy annotated (shared array, must not be modified)
+     */
+    public Field[] getFieldsWithAnnotation(Class<? extends Annotation> annotationClass) {
+        return fieldsByAnnotation.computeIfAbsent(annotationClass, a -> filter(fields, a));
+    }
+
+    /**
+     * @param annotationClass
+     * @return the fields declared by the class annotated (shared array, must not be modified)
+     */
+    public Field[] getDeclaredFieldsWithAnnotation(Class<? extends Annotation> annotationClass) {
+        return declaredFieldsByAnnotation.computeIfAbsent(annotationClass, a -> filter(declaredFields, a));
+    }
+
+    /**
+     * Lookup in the index of the declared fields by value of an annotation member.
+     * @param annotationClass
+     * @param name member of the annotation
+     * @param value
+     * @return the first field declared by the class whose annotation member equals the value or null
+     */
+    public Field getDeclaredFieldWithAnnotationValue(Class<? extends Annotation> annotationClass, String name, Object value) {
+        return declaredFieldsByAnnotationValue.computeIfAbsent(annotationClass, a -> new ConcurrentHashMap<>())
+                .computeIfAbsent(name, n -> index(getDeclaredFieldsWithAnnotation(annotationClass), annotationClass, n))
+                .get(value);
+    }
+
+    private static Map<Object, Field> index(Field[] fields, Class<? extends Annotation> annotationClass, String name) {
+        final AnnotationAttribute attribute = AnnotationAttribute.of(annotationClass, name);
+        if (attribute == null || fields.length == 0) {
+            return Collections.emptyMap();
+        }
+        final Map<Object, Field> res = new HashMap<>(capacity(fields.length));
+        for (Field field : fields) {
+            final Object value = attribute.get(field.getAnnotation(annotationClass));
+            if (value != null) {
+                res.putIfAbsent(value, field);
+            }
+        }
+        return res;
+    }
+
+    private static Field[] filter(Field[] fields, Class<? extends Annotation> annotationClass) {
+        final List<Field> res = new ArrayList<>();
+        for (Field field : fields) {
+            if (field.isAnnotationPresent(annotationClass)) {
+                res.add(field);
+            }
+        }
+        return res.isEmpty() ? EMPTY_FIELD_ARRAY : res.toArray(EMPTY_FIELD_ARRAY);
+    }
+
+    private static final class MethodEntry {
+
+        private final Method method;
+        private final Class<?> declaringClass;
+        private final Class<?> returnType;
+        private final Class<?>[] parameterTypes;
+
+        private MethodEntry(Method method) {
+            this.method = method;
+            this.declaringClass = method.getDeclaringClass();
+            this.returnType = method.getReturnType();
+            this.parameterTypes = method.getParameterTypes();
+        }
+
+    }
+
+}
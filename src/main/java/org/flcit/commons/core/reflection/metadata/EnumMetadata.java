@@ -0,0 +1,210 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.reflection.metadata;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.flcit.commons.core.reflection.accessor.PropertyAccessor;
+
+/**
+ * Lookup tables of an enum class, computed once and cached per class in a {@link SoftClassValue}:
+ * constants by name, by {@code toString()}, by name or {@code toString()}, by field value,
+ * each with a case insensitive variant.
+ * <p>Lookups are a single hash lookup and return null when no constant matches.
+ * When several constants match the same key, the first declared one wins.
+ *
+ * @param <T>
+ * @since 
+ * @author Florian Lestic
+ */
+public final class EnumMetadata<T extends Enum<?>> {
+
+    private static final SoftClassValue<EnumMetadata<?>> CACHE = new SoftClassValue<EnumMetadata<?>>() {
+        @Override
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        protected EnumMetadata<?> computeValue(Class<?> type) {
+            return new EnumMetadata((Enum[]) type.getEnumConstants());
+        }
+    };
+
+    private final Class<T> type;
+    private final T[] values;
+    private final Map<String, T> byName;
+    private final Map<String, T> byToString;
+    private final Map<String, T> byNameOrToString;
+    private volatile Map<String, T> byNameIgnoreCase;
+    private volatile Map<String, T> byToStringIgnoreCase;
+    private final ConcurrentMap<Field, Map<String, T>> byField = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Field, Map<String, T>> byFieldIgnoreCase = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    private EnumMetadata(T[] values) {
+        this.type = (Class<T>) values.getClass().getComponentType();
+        this.values = values;
+        final Map<String, T> names = new HashMap<>(capacity(values.length));
+        final Map<String, T> toStrings = new HashMap<>(capacity(values.length));
+        final Map<String, T> namesOrToStrings = new HashMap<>(capacity(values.length * 2));
+        for (T value : values) {
+            names.put(value.name(), value);
+            toStrings.putIfAbsent(value.toString(), value);
+            namesOrToStrings.putIfAbsent(value.name(), value);
+            namesOrToStrings.putIfAbsent(value.toString(), value);
+        }
+        this.byName = Collections.unmodifiableMap(names);
+        this.byToString = Collections.unmodifiableMap(toStrings);
+        this.byNameOrToString = Collections.unmodifiableMap(namesOrToStrings);
+    }
+
+    /**
+     * @param <T>
+     * @param clazz
+     * @return the cached metadata of the enum class
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Enum<?>> EnumMetadata<T> of(Class<T> clazz) {
+        if (!clazz.isEnum()) {
+            throw new IllegalArgumentException("Not an enum class: " + clazz.getName());
+        }
+        return (EnumMetadata<T>) CACHE.get(clazz);
+    }
+
+    private static int capacity(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * @return a copy of the constants
+     */
+    public T[] values() {
+        return values.clone();
+    }
+
+    /**
+     * @return
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * @param ordinal
+     * @return
+     */
+    public T get(int ordinal) {
+        return values[ordinal];
+    }
+
+    /**
+     * @param name
+     * @param ignoreCase
+     * @return the constant or null
+     */
+    public T getByName(String name, boolean ignoreCase) {
+        if (name == null) {
+            return null;
+        }
+        return ignoreCase ? byNameIgnoreCase().get(key(name)) : byName.get(name);
+    }
+
+    /**
+     * @param value
+     * @param ignoreCase
+     * @return the constant or null
+     */
+    public T getByToString(String value, boolean ignoreCase) {
+        if (value == null) {
+            return null;
+        }
+        return ignoreCase ? byToStringIgnoreCase().get(key(value)) : byToString.get(value);
+    }
+
+    /**
+     * @param value
+     * @return the constant or null
+     */
+    public T getByNameOrToString(String value) {
+        return value == null ? null : byNameOrToString.get(value);
+    }
+
+    /**
+     * @param field
+     * @param value
+     * @param ignoreCase
+     * @return the constant whose field has this value or null
+     */
+    public T getByField(Field field, String value, boolean ignoreCase) {
+        if (value == null) {
+            return null;
+        }
+        return ignoreCase ? byFieldIgnoreCase.computeIfAbsent(field, f -> fieldMap(f, true)).get(key(value))
+                : byField.computeIfAbsent(field, f -> fieldMap(f, false)).get(value);
+    }
+
+    private Map<String, T> byNameIgnoreCase() {
+        Map<String, T> map = byNameIgnoreCase;
+        if (map == null) {
+            map = new HashMap<>(capacity(values.length));
+            for (T value : values) {
+                map.putIfAbsent(key(value.name()), value);
+            }
+            byNameIgnoreCase = map = Collections.unmodifiableMap(map);
+        }
+        return map;
+    }
+
+    private Map<String, T> byToStringIgnoreCase() {
+        Map<String, T> map = byToStringIgnoreCase;
+        if (map == null) {
+            map = new HashMap<>(capacity(values.length));
+            for (T value : values) {
+                map.putIfAbsent(key(value.toString()), value);
+            }
+            byToStringIgnoreCase = map = Collections.unmodifiableMap(map);
+        }
+        return map;
+    }
+
+    private Map<String, T> fieldMap(Field field, boolean ignoreCase) {
+        final PropertyAccessor accessor = PropertyAccessor.of(field);
+        final Map<String, T> map = new HashMap<>(capacity(values.length));
+        for (T value : values) {
+            final Object val = accessor.get(value);
+            if (val != null) {
+                map.putIfAbsent(ignoreCase ? key(val.toString()) : val.toString(), value);
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+}
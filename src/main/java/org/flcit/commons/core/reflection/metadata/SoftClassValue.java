@@ -0,0 +1,68 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flcit.commons.core.reflection.metadata;
+
+import java.lang.ref.SoftReference;
+
+/**
+ * {@link ClassValue} holding its values through {@link SoftReference}s, so that a cached value
+ * referencing its class (fields, methods, constants...) does not keep the class and its class loader
+ * reachable (JDK-8136353): the cache never prevents a class from being unloaded.
+ * <p>A value cleared by the garbage collector is computed again on the next {@link #get(Class)}.
+ *
+ * @param <T>
+ * @since 
+ * @author Florian Lestic
+ */
+public abstract class SoftClassValue<T> {
+
+    private final ClassValue<SoftReference<T>> values = new ClassValue<SoftReference<T>>() {
+        @Override
+        protected SoftReference<T> computeValue(Class<?> type) {
+            final T value = SoftClassValue.this.computeValue(type);
+            if (value == null) {
+                throw new NullPointerException("Value computed for " + type.getName() + " must not be null");
+            }
+            return new SoftReference<>(value);
+        }
+    };
+
+    /**
+     * @param type
+     * @return the value of the class, never null
+     */
+    protected abstract T computeValue(Class<?> type);
+
+    /**
+     * @param type
+     * @return the cached value of the class, computed if absent or cleared
+     */
+    public T get(Class<?> type) {
+        T value;
+        while ((value = values.get(type).get()) == null) {
+            values.remove(type);
+        }
+        return value;
+    }
+
+    /**
+     * @param type
+     */
+    public void remove(Class<?> type) {
+        values.remove(type);
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.streaming.checkpoint;
+
+/**
+ * Store of the position (offset or cursor) reached by a streaming iteration.
+ *
+ * @param <K>
+ * @since 
+ * @author Florian Lestic
+ */
+public interface CheckpointStore<K> {
+
+    /**
+     * @return the last saved position or null if none
+     */
+    K load();
+
+    /**
+     * @param position
+     */
+    void save(K position);
+
+    /**
+     * Remove the saved position once the iteration is complete.
+     */
+    void clear();
+
+}
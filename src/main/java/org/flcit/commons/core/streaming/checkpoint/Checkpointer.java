@@ -0,0 +1,81 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.streaming.checkpoint;
+
+/**
+ * Saves the position of an iteration in a {@link CheckpointStore} every {@code interval} pages.
+ * <p>The position is saved before fetching a page, when all the previous pages have been consumed,
+ * so a resumed iteration replays at most {@code interval} pages.
+ *
+ * @param <K>
+ * @since 
+ * @author Florian Lestic
+ */
+public class Checkpointer<K> {
+
+    private final CheckpointStore<K> store;
+    private final int interval;
+    private long pages;
+    private boolean suspended;
+
+    /**
+     * @param store
+     * @param interval
+     */
+    public Checkpointer(CheckpointStore<K> store, int interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        this.store = store;
+        this.interval = interval;
+    }
+
+    /**
+     * @param initial
+     * @return the saved position or the initial one
+     */
+    public K resume(K initial) {
+        final K position = store.load();
+        return position != null ? position : initial;
+    }
+
+    /**
+     * @param position
+     */
+    public void beforeFetch(K position) {
+        if (!suspended && pages > 0 && pages % interval == 0) {
+            store.save(position);
+        }
+        pages++;
+    }
+
+    /**
+     * Stops saving positions, the last saved one (if any) being kept: used once pages are handed
+     * to other consumers, as a later position could then skip pages not yet consumed.
+     */
+    public void suspend() {
+        suspended = true;
+    }
+
+    /**
+     * 
+     */
+    public void end() {
+        store.clear();
+    }
+
+}
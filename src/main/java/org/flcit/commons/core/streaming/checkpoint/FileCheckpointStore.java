@@ -0,0 +1,91 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.streaming.checkpoint;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Function;
+
+import org.flcit.commons.core.file.util.FileUtils;
+import org.flcit.commons.core.util.StringUtils;
+
+/**
+ * Checkpoint store in a local file, written in a temporary file then moved to replace the previous checkpoint,
+ * so a crash while saving never leaves a truncated checkpoint.
+ *
+ * @param <K>
+ * @since 
+ * @author Florian Lestic
+ */
+public class FileCheckpointStore<K> implements CheckpointStore<K> {
+
+    private final Path path;
+    private final Function<K, String> serializer;
+    private final Function<String, K> parser;
+
+    /**
+     * @param path
+     * @param serializer
+     * @param parser
+     */
+    public FileCheckpointStore(Path path, Function<K, String> serializer, Function<String, K> parser) {
+        this.path = path;
+        this.serializer = serializer;
+        this.parser = parser;
+    }
+
+    /**
+     * @param path
+     * @return a store of offsets
+     */
+    public static FileCheckpointStore<Long> offset(Path path) {
+        return new FileCheckpointStore<>(path, String::valueOf, Long::valueOf);
+    }
+
+    @Override
+    public K load() {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try {
+            final String value = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+            return StringUtils.hasLength(value) ? parser.apply(value) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void save(K position) {
+        try {
+            final Path temp = FileUtils.addTempExtension(path);
+            Files.write(temp, serializer.apply(position).getBytes(StandardCharsets.UTF_8));
+            FileUtils.removeTempExtensionAndMove(temp);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void clear() {
+        FileUtils.deleteSafely(path);
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.streaming.iterable;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+import org.flcit.commons.core.util.BooleanUtils;
+import org.flcit.commons.core.util.CollectionUtils;
+
+/**
+ * Iterator over a paged source: the next page is fetched when the current one is consumed,
+ * the iteration ends on the first empty page or when the shutdown supplier returns true.
+ *
+ * @param <T>
+ * @since 
+ * @author Florian Lestic
+ */
+public abstract class AbstractStreamingIterator<T> implements Iterator<T> {
+
+    private final Supplier<Boolean> shutdown;
+    private List<T> list;
+    private boolean end;
+    private int i = -1;
+
+    /**
+     * @param shutdown
+     */
+    protected AbstractStreamingIterator(Supplier<Boolean> shutdown) {
+        this.shutdown = shutdown;
+    }
+
+    /**
+     * Fetch the page following the last fetched one.
+     * @return
+     */
+    protected abstract List<T> fetch();
+
+    /**
+     * Called with each non empty fetched page, before its elements are returned.
+     * @param page
+     */
+    protected abstract void onPage(List<T> page);
+
+    /**
+     * Called once when an empty page ends the iteration (not on shutdown).
+     */
+    protected void onEnd() { }
+
+    /**
+     * Called by {@link #nextPage()}, before any fetch, when a page is about to be handed off
+     * to another consumer (split of a {@link StreamingSpliterator}).
+     */
+    protected void onSplit() { }
+
+    @Override
+    public boolean hasNext() {
+        if (end) {
+            return false;
+        }
+        if (list == null || i >= list.size() - 1) {
+            nextList();
+            return hasNext();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (end) {
+            throw new NoSuchElementException();
+        }
+        i++;
+        if (list == null || i >= list.size()) {
+            nextList();
+            return next();
+        }
+        return list.get(i);
+    }
+
+    /**
+     * Returns the not yet consumed elements of the current page, fetching the next page if needed,
+     * and marks them as consumed.
+     * @return the remaining page or null if the iteration is ended
+     */
+    List<T> nextPage() {
+        onSplit();
+        if (!hasNext()) {
+            return null;
+        }
+        final List<T> page = i < 0 ? list : list.subList(i + 1, list.size());
+        i = list.size() - 1;
+        return page;
+    }
+
+    private void nextList() {
+        i = -1;
+        if (BooleanUtils.isTrue(shutdown)) {
+            end = true;
+            return;
+        }
+        list = fetch();
+        end = CollectionUtils.isEmpty(list);
+        if (end) {
+            onEnd();
+        } else {
+            onPage(list);
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.streaming.iterable;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.flcit.commons.core.streaming.page.AdaptivePageSize;
+
+/**
+ * Variant of {@link StreamingIterable} requesting each page with an offset and a size
+ * given by an {@link AdaptivePageSize} policy, fed with the latency of each fetch.
+ *
+ * @param <T>
+ * @since 
+ * @author Florian Lestic
+ */
+public class AdaptiveStreamingIterable<T> implements Iterable<T> {
+
+    private final BiFunction<Long, Integer, List<T>> function;
+    private final AdaptivePageSize pageSize;
+    private final ToLongFunction<T> weigher;
+    private final Supplier<Boolean> shutdown;
+
+    /**
+     * @param function function of the offset and the page size
+     * @param pageSize
+     * @param shutdown
+     */
+    public AdaptiveStreamingIterable(BiFunction<Long, Integer, List<T>> function, AdaptivePageSize pageSize, Supplier<Boolean> shutdown) {
+        this(function, pageSize, null, shutdown);
+    }
+
+    /**
+     * @param function function of the offset and the page size
+     * @param pageSize
+     * @param weigher estimated size in bytes of an element, required by a memory budget (may be null)
+     * @param shutdown
+     */
+    public AdaptiveStreamingIterable(BiFunction<Long, Integer, List<T>> function, AdaptivePageSize pageSize, ToLongFunction<T> weigher, Supplier<Boolean> shutdown) {
+        this.function = function;
+        this.pageSize = pageSize;
+        this.weigher = weigher;
+        this.shutdown = shutdown;
+    }
+
+    /**
+     * @return
+     */
+    public AdaptivePageSize getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return streamingIterator();
+    }
+
+    private AbstractStreamingIterator<T> streamingIterator() {
+        return new AbstractStreamingIterator<T>(shutdown) {
+
+            private long offset;
+
+            @Override
+            protected List<T> fetch() {
+                final int size = pageSize.size();
+                final long start = System.nanoTime();
+                final List<T> page = function.apply(offset, size);
+                final long latency = System.nanoTime() - start;
+                pageSize.record(offset, size, page == null ? 0 : page.size(), latency, weigh(page));
+                return page;
+            }
+
+            @Override
+            protected void onPage(List<T> page) {
+                offset += page.size();
+            }
+        };
+    }
+
+    private long weigh(List<T> page) {
+        if (weigher == null || page == null) {
+            return -1;
+        }
+        long bytes = 0;
+        for (T elem : page) {
+            bytes += weigher.applyAsLong(elem);
+        }
+        return bytes;
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return new StreamingSpliterator<>(streamingIterator());
+    }
+
+    /**
+     * @param parallel
+     * @return
+     */
+    public Stream<T> stream(boolean parallel) {
+        return StreamSupport.stream(spliterator(), parallel);
+    }
+
+}
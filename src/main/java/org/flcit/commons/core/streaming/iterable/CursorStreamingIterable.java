@@ -0,0 +1,143 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.streaming.iterable;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.flcit.commons.core.streaming.checkpoint.CheckpointStore;
+import org.flcit.commons.core.streaming.checkpoint.Checkpointer;
+
+/**
+ * Keyset (cursor) paging variant of {@link StreamingIterable}: each page is requested
+ * with the key extracted from the last element of the previous page (last id, timestamp...)
+ * instead of a numeric offset, so the cost of a page does not depend on its depth.
+ * <p>The first page is requested with the initial cursor (may be null).
+ *
+ * @param <T>
+ * @param <K>
+ * @since 
+ * @author Florian Lestic
+ */
+public class CursorStreamingIterable<T, K> implements Iterable<T> {
+
+    private final K initialCursor;
+    private final Function<K, List<T>> function;
+    private final Function<T, K> cursor;
+    private final Supplier<Boolean> shutdown;
+    private final CheckpointStore<K> checkpointStore;
+    private final int checkpointInterval;
+
+    /**
+     * @param function
+     * @param cursor
+     * @param shutdown
+     */
+    public CursorStreamingIterable(Function<K, List<T>> function, Function<T, K> cursor, Supplier<Boolean> shutdown) {
+        this(null, function, cursor, shutdown);
+    }
+
+    /**
+     * @param initialCursor
+     * @param function
+     * @param cursor
+     * @param shutdown
+     */
+    public CursorStreamingIterable(K initialCursor, Function<K, List<T>> function, Function<T, K> cursor, Supplier<Boolean> shutdown) {
+        this(initialCursor, function, cursor, shutdown, null, 0);
+    }
+
+    /**
+     * Checkpointing mode: the iteration resumes from the cursor saved in the store,
+     * saves its cursor every {@code checkpointInterval} pages and clears the store when complete.
+     * <p>Cursors are only saved while the iteration is consumed sequentially: once the {@link #spliterator()}
+     * is split (parallel stream), checkpointing is suspended.
+     * @param initialCursor
+     * @param function
+     * @param cursor
+     * @param shutdown
+     * @param checkpointStore
+     * @param checkpointInterval
+     */
+    public CursorStreamingIterable(K initialCursor, Function<K, List<T>> function, Function<T, K> cursor, Supplier<Boolean> shutdown, CheckpointStore<K> checkpointStore, int checkpointInterval) {
+        this.initialCursor = initialCursor;
+        this.function = function;
+        this.cursor = cursor;
+        this.shutdown = shutdown;
+        this.checkpointStore = checkpointStore;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return streamingIterator();
+    }
+
+    private AbstractStreamingIterator<T> streamingIterator() {
+        final Checkpointer<K> checkpointer = checkpointStore != null ? new Checkpointer<>(checkpointStore, checkpointInterval) : null;
+        return new AbstractStreamingIterator<T>(shutdown) {
+
+            private K key = checkpointer != null ? checkpointer.resume(initialCursor) : initialCursor;
+
+            @Override
+            protected List<T> fetch() {
+                if (checkpointer != null) {
+                    checkpointer.beforeFetch(key);
+                }
+                return function.apply(key);
+            }
+
+            @Override
+            protected void onEnd() {
+                if (checkpointer != null) {
+                    checkpointer.end();
+                }
+            }
+
+            @Override
+            protected void onSplit() {
+                if (checkpointer != null) {
+                    checkpointer.suspend();
+                }
+            }
+
+            @Override
+            protected void onPage(List<T> page) {
+                key = cursor.apply(page.get(page.size() - 1));
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return new StreamingSpliterator<>(streamingIterator());
+    }
+
+    /**
+     * @param parallel
+     * @return
+     */
+    public Stream<T> stream(boolean parallel) {
+        return StreamSupport.stream(spliterator(), parallel);
+    }
+
+}
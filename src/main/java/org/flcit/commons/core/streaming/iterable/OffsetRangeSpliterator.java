@@ -0,0 +1,132 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.streaming.iterable;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.flcit.commons.core.util.BooleanUtils;
+import org.flcit.commons.core.util.CollectionUtils;
+
+/**
+ * Spliterator over the offsets range [origin, fence) of a paged source whose total is known.
+ * <p>Splitting hands an independent sub-range (aligned on the page size) to another fork-join worker,
+ * each range fetching its own pages; once a page is buffered, its remaining elements are split off instead.
+ *
+ * @param <T>
+ * @since 
+ * @author Florian Lestic
+ */
+public class OffsetRangeSpliterator<T> implements Spliterator<T> {
+
+    private final Function<Long, List<T>> function;
+    private final Supplier<Boolean> shutdown;
+    private final int pageSize;
+    private final long fence;
+    private long origin;
+    private List<T> page;
+    private int index;
+
+    /**
+     * @param function
+     * @param shutdown
+     * @param total
+     * @param pageSize
+     */
+    public OffsetRangeSpliterator(Function<Long, List<T>> function, Supplier<Boolean> shutdown, long total, int pageSize) {
+        this(function, shutdown, 0, total, pageSize);
+    }
+
+    /**
+     * @param function
+     * @param shutdown
+     * @param origin
+     * @param fence
+     * @param pageSize
+     */
+    public OffsetRangeSpliterator(Function<Long, List<T>> function, Supplier<Boolean> shutdown, long origin, long fence, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        this.function = function;
+        this.shutdown = shutdown;
+        this.origin = origin;
+        this.fence = fence;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if ((page == null || index >= page.size()) && !fetch()) {
+            return false;
+        }
+        action.accept(page.get(index++));
+        return true;
+    }
+
+    private boolean fetch() {
+        page = null;
+        index = 0;
+        if (origin >= fence || BooleanUtils.isTrue(shutdown)) {
+            return false;
+        }
+        List<T> list = function.apply(origin);
+        if (CollectionUtils.isEmpty(list)) {
+            origin = fence;
+            return false;
+        }
+        if (list.size() > fence - origin) {
+            list = list.subList(0, (int) (fence - origin));
+        }
+        origin += list.size();
+        page = list;
+        return true;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (page != null && index < page.size()) {
+            final List<T> rest = page.subList(index, page.size());
+            page = null;
+            index = 0;
+            return Spliterators.spliterator(rest, Spliterator.ORDERED);
+        }
+        final long pages = (fence - origin + pageSize - 1) / pageSize;
+        if (pages < 2) {
+            return null;
+        }
+        final long mid = origin + (pages / 2) * pageSize;
+        final Spliterator<T> prefix = new OffsetRangeSpliterator<>(function, shutdown, origin, mid, pageSize);
+        origin = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Math.max(0, fence - origin) + (page != null ? page.size() - index : 0);
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED;
+    }
+
+}
@@ -18,12 +18,14 @@ package org.flcit.commons.core.streaming.iterable;
 
 import java.util.Iterator;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.Spliterator;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import org.flcit.commons.core.util.BooleanUtils;
-import org.flcit.commons.core.util.CollectionUtils;
+import org.flcit.commons.core.streaming.checkpoint.CheckpointStore;
+import org.flcit.commons.core.streaming.checkpoint.Checkpointer;
 
 /**
  * @param <T>
@@ -34,63 +36,102 @@ public class StreamingIterable<T> implements Iterable<T> {
 
     private final Function<Long, List<T>> function;
     private final Supplier<Boolean> shutdown;
+    private final CheckpointStore<Long> checkpointStore;
+    private final int checkpointInterval;
 
     /**
      * @param function
      * @param shutdown
      */
     public StreamingIterable(Function<Long, List<T>> function, Supplier<Boolean> shutdown) {
+        this(function, shutdown, null, 0);
+    }
+
+    /**
+     * Checkpointing mode: the iteration resumes from the offset saved in the store,
+     * saves its offset every {@code checkpointInterval} pages and clears the store when complete.
+     * <p>Offsets are only saved while the iteration is consumed sequentially: once the {@link #spliterator()}
+     * is split (parallel stream), checkpointing is suspended as split pages may still be in progress,
+     * so a crash resumes from the last offset saved before the first split.
+     * @param function
+     * @param shutdown
+     * @param checkpointStore
+     * @param checkpointInterval
+     */
+    public StreamingIterable(Function<Long, List<T>> function, Supplier<Boolean> shutdown, CheckpointStore<Long> checkpointStore, int checkpointInterval) {
         this.function = function;
         this.shutdown = shutdown;
+        this.checkpointStore = checkpointStore;
+        this.checkpointInterval = checkpointInterval;
     }
 
     @Override
     public Iterator<T> iterator() {
-        return new Iterator<T>() {
+        return streamingIterator();
+    }
 
-            private List<T> list;
-            private boolean end;
-            private int i = -1;
-            private long offset;
+    private AbstractStreamingIterator<T> streamingIterator() {
+        final Checkpointer<Long> checkpointer = checkpointStore != null ? new Checkpointer<>(checkpointStore, checkpointInterval) : null;
+        return new AbstractStreamingIterator<T>(shutdown) {
+
+            private long offset = checkpointer != null ? checkpointer.resume(0L) : 0L;
 
             @Override
-            public boolean hasNext() {
-                if (end) {
-                    return false;
-                }
-                if (list == null || i >= list.size() - 1) {
-                    nextList();
-                    return hasNext();
+            protected List<T> fetch() {
+                if (checkpointer != null) {
+                    checkpointer.beforeFetch(offset);
                 }
-                return true;
+                return function.apply(offset);
             }
 
             @Override
-            public T next() {
-                if (end) {
-                    throw new NoSuchElementException();
-                }
-                i++;
-                if (list == null || i >= list.size()) {
-                    nextList();
-                    return next();
+            protected void onEnd() {
+                if (checkpointer != null) {
+                    checkpointer.end();
                 }
-                return list.get(i);
             }
 
-            private void nextList() {
-                i = -1;
-                if (BooleanUtils.isTrue(shutdown)) {
-                    end = true;
-                    return;
-                }
-                list = function.apply(offset);
-                end = CollectionUtils.isEmpty(list);
-                if (!end) {
-                    offset += list.size();
+            @Override
+            protected void onSplit() {
+                if (checkpointer != null) {
+                    checkpointer.suspend();
                 }
             }
+
+            @Override
+            protected void onPage(List<T> page) {
+                offset += page.size();
+            }
         };
     }
 
+    @Override
+    public Spliterator<T> spliterator() {
+        return new StreamingSpliterator<>(streamingIterator());
+    }
+
+    /**
+     * @param parallel
+     * @return
+     */
+    public Stream<T> stream(boolean parallel) {
+        return StreamSupport.stream(spliterator(), parallel);
+    }
+
+    /**
+     * Stream splitting independent offset ranges between fork-join workers.
+     * <p>Checkpointing is not supported by this stream.
+     * @param parallel
+     * @param total
+     * @param pageSize
+     * @return
+     * @throws IllegalStateException if this iterable has a checkpoint store
+     */
+    public Stream<T> stream(boolean parallel, long total, int pageSize) {
+        if (checkpointStore != null) {
+            throw new IllegalStateException("Offset range stream does not support checkpointing");
+        }
+        return StreamSupport.stream(new OffsetRangeSpliterator<>(function, shutdown, total, pageSize), parallel);
+    }
+
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.streaming.iterable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over a paged source which splits off batches of whole fetched pages,
+ * so the elements of each batch can be processed by another fork-join worker
+ * while the next pages are fetched.
+ * <p>As {@link Spliterators.AbstractSpliterator}, the size is unknown ({@link Long#MAX_VALUE})
+ * and each split hands off a batch one page larger than the previous one (capped at
+ * {@value #MAX_BATCH} elements): the first splits stay small so the work spreads over the workers,
+ * the later ones amortize the splitting cost.
+ *
+ * @param <T>
+ * @since 
+ * @author Florian Lestic
+ */
+public class StreamingSpliterator<T> implements Spliterator<T> {
+
+    static final int MAX_BATCH = 1 << 25;
+
+    private final AbstractStreamingIterator<T> iterator;
+    private int batch;
+
+    /**
+     * @param iterator
+     */
+    public StreamingSpliterator(AbstractStreamingIterator<T> iterator) {
+        this.iterator = iterator;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (!iterator.hasNext()) {
+            return false;
+        }
+        action.accept(iterator.next());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        while (iterator.hasNext()) {
+            action.accept(iterator.next());
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        List<T> page = iterator.nextPage();
+        if (page == null) {
+            return null;
+        }
+        final int pages = batch + 1;
+        final List<T> values = new ArrayList<>(page);
+        for (int i = 1; i < pages && values.size() < MAX_BATCH && (page = iterator.nextPage()) != null; i++) {
+            values.addAll(page);
+        }
+        batch = pages;
+        return Spliterators.spliterator(values, Spliterator.ORDERED);
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED;
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.streaming.page;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Page size policy adapting the requested size between bounds from the measured fetch latency
+ * (and optionally the page memory footprint): the size converges to the number of items
+ * fetched in the target latency, without exceeding the memory budget.
+ * <p>Each adjustment is bounded to half / twice the previous size to smooth the latency noise.
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+public class AdaptivePageSize {
+
+    private final int min;
+    private final int max;
+    private final long targetLatencyNanos;
+    private final long maxBytes;
+    private final Consumer<PageStatistics> listener;
+
+    private int size;
+    private long pages;
+    private long items;
+    private long totalLatencyNanos;
+    private PageStatistics last;
+
+    /**
+     * @param min
+     * @param max
+     * @param initial
+     * @param targetLatency
+     * @param unit
+     */
+    public AdaptivePageSize(int min, int max, int initial, long targetLatency, TimeUnit unit) {
+        this(min, max, initial, targetLatency, unit, -1, null);
+    }
+
+    /**
+     * @param min
+     * @param max
+     * @param initial
+     * @param targetLatency
+     * @param unit
+     * @param maxBytes memory budget of a page, -1 if none
+     * @param listener consumer of the statistics of each page (may be null)
+     */
+    public AdaptivePageSize(int min, int max, int initial, long targetLatency, TimeUnit unit, long maxBytes, Consumer<PageStatistics> listener) {
+        if (min <= 0 || max < min) {
+            throw new IllegalArgumentException("Bounds must verify 0 < min <= max");
+        }
+        this.min = min;
+        this.max = max;
+        this.size = clamp(initial);
+        this.targetLatencyNanos = unit.toNanos(targetLatency);
+        this.maxBytes = maxBytes;
+        this.listener = listener;
+    }
+
+    /**
+     * @return the size to request for the next page
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Record a fetched page and adapt the next size.
+     * @param offset
+     * @param requestedSize
+     * @param count
+     * @param latencyNanos
+     * @param bytes estimated size of the page or -1 if unknown
+     * @return the statistics of the page
+     */
+    public PageStatistics record(long offset, int requestedSize, int count, long latencyNanos, long bytes) {
+        final PageStatistics stats;
+        synchronized (this) {
+            stats = new PageStatistics(pages++, offset, requestedSize, count, latencyNanos, bytes);
+            items += count;
+            totalLatencyNanos += latencyNanos;
+            last = stats;
+            if (count > 0) {
+                size = clamp(Math.max(size / 2, Math.min(size * 2L, ideal(count, latencyNanos, bytes))));
+            }
+        }
+        if (listener != null) {
+            listener.accept(stats);
+        }
+        return stats;
+    }
+
+    private long ideal(int count, long latencyNanos, long bytes) {
+        long ideal = latencyNanos <= 0 ? Long.MAX_VALUE : (long) (targetLatencyNanos * ((double) count / latencyNanos));
+        if (maxBytes > 0 && bytes > 0) {
+            ideal = Math.min(ideal, (long) (maxBytes * ((double) count / bytes)));
+        }
+        return ideal;
+    }
+
+    private int clamp(long value) {
+        return (int) Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * @return
+     */
+    public synchronized long getPages() {
+        return pages;
+    }
+
+    /**
+     * @return
+     */
+    public synchronized long getItems() {
+        return items;
+    }
+
+    /**
+     * @return
+     */
+    public synchronized long getTotalLatencyNanos() {
+        return totalLatencyNanos;
+    }
+
+    /**
+     * @return the statistics of the last fetched page or null
+     */
+    public synchronized PageStatistics getLastStatistics() {
+        return last;
+    }
+
+}
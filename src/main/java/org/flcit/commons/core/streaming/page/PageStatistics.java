@@ -0,0 +1,99 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.streaming.page;
+
+/**
+ * Statistics of one fetched page.
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+public final class PageStatistics {
+
+    private final long index;
+    private final long offset;
+    private final int requestedSize;
+    private final int count;
+    private final long latencyNanos;
+    private final long bytes;
+
+    /**
+     * @param index
+     * @param offset
+     * @param requestedSize
+     * @param count
+     * @param latencyNanos
+     * @param bytes estimated size of the page or -1 if unknown
+     */
+    public PageStatistics(long index, long offset, int requestedSize, int count, long latencyNanos, long bytes) {
+        this.index = index;
+        this.offset = offset;
+        this.requestedSize = requestedSize;
+        this.count = count;
+        this.latencyNanos = latencyNanos;
+        this.bytes = bytes;
+    }
+
+    /**
+     * @return
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * @return
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return
+     */
+    public int getRequestedSize() {
+        return requestedSize;
+    }
+
+    /**
+     * @return
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return
+     */
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    /**
+     * @return
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "PageStatistics [index=" + index + ", offset=" + offset + ", requestedSize=" + requestedSize
+                + ", count=" + count + ", latencyNanos=" + latencyNanos + ", bytes=" + bytes + "]";
+    }
+
+}
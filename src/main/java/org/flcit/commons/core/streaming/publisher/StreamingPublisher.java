@@ -0,0 +1,240 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.streaming.publisher;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.flcit.commons.core.streaming.iterable.CursorStreamingIterable;
+import org.flcit.commons.core.streaming.iterable.StreamingIterable;
+import org.flcit.commons.core.util.BooleanUtils;
+
+/**
+ * Demand driven publisher over a paged source: pages are only fetched when the subscriber
+ * requested more elements than already buffered, always on the given executor,
+ * and the subscription cancellation is propagated to the source through its shutdown hook.
+ * <p>{@link Subscriber} and {@link Subscription} follow the Reactive Streams / {@code java.util.concurrent.Flow}
+ * contract (the library targets Java 8), so they can be bridged with a method reference on each side.
+ *
+ * @param <T>
+ * @since 
+ * @author Florian Lestic
+ */
+public class StreamingPublisher<T> {
+
+    private final Function<Supplier<Boolean>, Iterable<T>> source;
+    private final Executor executor;
+
+    /**
+     * @param source function creating the iterable of a subscription from its shutdown hook
+     * @param executor executor running the blocking fetches
+     */
+    public StreamingPublisher(Function<Supplier<Boolean>, Iterable<T>> source, Executor executor) {
+        this.source = source;
+        this.executor = executor;
+    }
+
+    /**
+     * @param <T>
+     * @param function
+     * @param shutdown
+     * @param executor
+     * @return
+     */
+    public static <T> StreamingPublisher<T> offset(Function<Long, List<T>> function, Supplier<Boolean> shutdown, Executor executor) {
+        return new StreamingPublisher<>(cancelled -> new StreamingIterable<>(function, or(cancelled, shutdown)), executor);
+    }
+
+    /**
+     * @param <T>
+     * @param <K>
+     * @param initialCursor
+     * @param function
+     * @param cursor
+     * @param shutdown
+     * @param executor
+     * @return
+     */
+    public static <T, K> StreamingPublisher<T> cursor(K initialCursor, Function<K, List<T>> function, Function<T, K> cursor, Supplier<Boolean> shutdown, Executor executor) {
+        return new StreamingPublisher<>(cancelled -> new CursorStreamingIterable<>(initialCursor, function, cursor, or(cancelled, shutdown)), executor);
+    }
+
+    private static Supplier<Boolean> or(Supplier<Boolean> cancelled, Supplier<Boolean> shutdown) {
+        return () -> BooleanUtils.isTrue(cancelled) || BooleanUtils.isTrue(shutdown);
+    }
+
+    /**
+     * @param subscriber
+     */
+    public void subscribe(Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber must not be null");
+        }
+        final StreamingSubscription<T> subscription = new StreamingSubscription<>(subscriber, source, executor);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private static final class StreamingSubscription<T> implements Subscription, Runnable {
+
+        private final Subscriber<? super T> subscriber;
+        private final Function<Supplier<Boolean>, Iterable<T>> source;
+        private final Executor executor;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+        private Iterator<T> iterator;
+
+        private StreamingSubscription(Subscriber<? super T> subscriber, Function<Supplier<Boolean>, Iterable<T>> source, Executor executor) {
+            this.subscriber = subscriber;
+            this.source = source;
+            this.executor = executor;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // signalled by the drain loop, never from the caller's stack (rule 3.9)
+                error = new IllegalArgumentException("Request must be positive, was " + n);
+                drain();
+                return;
+            }
+            long current;
+            do {
+                current = demand.get();
+                if (current == Long.MAX_VALUE) {
+                    break;
+                }
+            } while (!demand.compareAndSet(current, current + n < 0 ? Long.MAX_VALUE : current + n));
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private Boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                } catch (RuntimeException e) {
+                    cancelled = true;
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                try {
+                    if (emit()) {
+                        return;
+                    }
+                } catch (RuntimeException e) {
+                    cancelled = true;
+                    subscriber.onError(e);
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private boolean emit() {
+            if (iterator == null && !cancelled && error == null) {
+                iterator = source.apply(this::isCancelled).iterator();
+            }
+            while (!cancelled && error == null && demand.get() > 0) {
+                if (!iterator.hasNext()) {
+                    if (!cancelled) {
+                        cancelled = true;
+                        subscriber.onComplete();
+                    }
+                    return true;
+                }
+                subscriber.onNext(iterator.next());
+                if (demand.get() != Long.MAX_VALUE) {
+                    demand.decrementAndGet();
+                }
+            }
+            if (error != null && !cancelled) {
+                cancelled = true;
+                subscriber.onError(error);
+                return true;
+            }
+            return cancelled;
+        }
+
+    }
+
+    /**
+     * Mirror of {@code java.util.concurrent.Flow.Subscriber}.
+     * @param <T>
+     */
+    public static interface Subscriber<T> {
+
+        /**
+         * @param subscription
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * @param item
+         */
+        void onNext(T item);
+
+        /**
+         * @param throwable
+         */
+        void onError(Throwable throwable);
+
+        /**
+         * 
+         */
+        void onComplete();
+
+    }
+
+    /**
+     * Mirror of {@code java.util.concurrent.Flow.Subscription}.
+     */
+    public static interface Subscription {
+
+        /**
+         * @param n
+         */
+        void request(long n);
+
+        /**
+         * 
+         */
+        void cancel();
+
+    }
+
+}
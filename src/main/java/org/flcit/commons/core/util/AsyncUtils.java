@@ -16,7 +16,9 @@
 
 package org.flcit.commons.core.util;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
@@ -25,7 +27,12 @@ import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.flcit.commons.core.executor.SingleTaskThreadExecutor;
+import org.flcit.commons.core.concurrent.CircuitBreaker;
+import org.flcit.commons.core.concurrent.CompletionTracker;
+import org.flcit.commons.core.concurrent.ConcurrencyLimiter;
+import org.flcit.commons.core.exception.CallNotPermittedException;
+import org.flcit.commons.core.executor.InstrumentedExecutor;
+import org.flcit.commons.core.executor.OneShotExecutor;
 
 /**
  * 
@@ -46,16 +53,48 @@ public final class AsyncUtils {
      * @return
      */
     public static <T> Supplier<Boolean> consume(T[] list, Executor executor, Consumer<T> consumer) {
-        final int[] length = new int[] { list.length, 0};
+        final CompletionTracker tracker = track(list, executor, consumer);
+        return tracker::isDone;
+    }
+
+    /**
+     * Same as {@link #consume(Object[], Executor, Consumer)} with a completion signal instead of polling.
+     * @param <T>
+     * @param list
+     * @param executor
+     * @param consumer
+     * @return a future completed when every element is consumed, exceptionally with an
+     * {@link org.flcit.commons.core.exception.AggregateException} if at least one consumption failed
+     */
+    public static <T> CompletableFuture<Void> consumeAsync(T[] list, Executor executor, Consumer<T> consumer) {
+        return track(list, executor, consumer).future();
+    }
+
+    /**
+     * @param <T>
+     * @param list
+     * @param executor
+     * @param consumer
+     * @return the tracker of the consumptions (counts, errors and completion)
+     */
+    public static <T> CompletionTracker track(T[] list, Executor executor, Consumer<T> consumer) {
+        final CompletionTracker tracker = new CompletionTracker(list.length);
         for (T elem : list) {
-            executor.execute(() -> {
-                consumer.accept(elem);
-                synchronized (length) {
-                    length[1] = ++length[1];
-                }
-            });
+            try {
+                executor.execute(() -> {
+                    try {
+                        consumer.accept(elem);
+                    } catch (RuntimeException | Error e) {
+                        tracker.failure(e);
+                        return;
+                    }
+                    tracker.success();
+                });
+            } catch (RejectedExecutionException e) {
+                tracker.failure(e);
+            }
         }
-        return () -> length[0] == length[1];
+        return tracker;
     }
 
     /**
@@ -74,11 +113,11 @@ public final class AsyncUtils {
      * @param consumer
      */
     public static <T> void getSyncErrorAsync(Supplier<T> supplier, Long sleepOnError, Consumer<T> consumer) {
-        getSyncErrorAsync(AsyncUtils::getSingleTaskThreadExecutor, supplier, sleepOnError, consumer, AsyncUtils::logError);
+        getSyncErrorAsync(AsyncUtils::getOneShotExecutor, supplier, sleepOnError, consumer, AsyncUtils::logError);
     }
 
-    private static Executor getSingleTaskThreadExecutor() {
-        return new SingleTaskThreadExecutor();
+    private static Executor getOneShotExecutor() {
+        return new OneShotExecutor();
     }
 
     private static void logError(Exception e) {
@@ -195,6 +234,9 @@ public final class AsyncUtils {
         } catch (RuntimeException e) {
             if (retry != null && retry.test(e)) {
                 if (count > 0) {
+                    if (executor instanceof InstrumentedExecutor) {
+                        ((InstrumentedExecutor) executor).recordRetry();
+                    }
                     doAsync(() -> doAsyncRetryable(ObjectUtils.getOrDefault(runnableRetry, runnable), executor, count - 1, delay, retry), executor, delay);
                 } else if (runnableEndRetry != null) {
                     runnableEndRetry.run();
@@ -207,6 +249,72 @@ public final class AsyncUtils {
         }
     }
 
+    /**
+     * Same as {@link #doAsyncRetryable(Runnable, ScheduledExecutorService, int, long, Predicate)} with each attempt
+     * going through the shared circuit breaker and concurrency limiter (each may be null):
+     * a rejected attempt is not run and is retried as a retryable failure,
+     * after the delay or the {@link CallNotPermittedException#getRetryAfterNanos() retry after} if longer.
+     * @param runnable
+     * @param executor
+     * @param count
+     * @param delay
+     * @param retry
+     * @param circuitBreaker
+     * @param limiter
+     */
+    public static void doAsyncRetryable(final Runnable runnable, final ScheduledExecutorService executor, final int count, final long delay, final Predicate<RuntimeException> retry, final CircuitBreaker circuitBreaker, final ConcurrencyLimiter limiter) {
+        doAsyncRetryable(runnable, executor, count, delay, retry, circuitBreaker, limiter, null, null);
+    }
+
+    /**
+     * Same as {@link #doAsyncRetryable(Runnable, ScheduledExecutorService, int, long, Predicate, CircuitBreaker, ConcurrencyLimiter)}:
+     * once the retries are exhausted, {@code runnableEndRetry} is run, or else the last error is given to {@code consumerError},
+     * or else rethrown; a non retryable error is given to {@code consumerError} or else rethrown.
+     * @param runnable
+     * @param executor
+     * @param count
+     * @param delay
+     * @param retry
+     * @param circuitBreaker
+     * @param limiter
+     * @param runnableEndRetry
+     * @param consumerError
+     */
+    @SuppressWarnings("java:S107")
+    public static void doAsyncRetryable(final Runnable runnable, final ScheduledExecutorService executor, final int count, final long delay, final Predicate<RuntimeException> retry, final CircuitBreaker circuitBreaker, final ConcurrencyLimiter limiter, final Runnable runnableEndRetry, final Consumer<RuntimeException> consumerError) {
+        Runnable guarded = limiter != null ? limiter.decorate(runnable) : runnable;
+        guarded = circuitBreaker != null ? circuitBreaker.decorate(guarded) : guarded;
+        doAsyncGuarded(guarded, executor, count, delay, retry, runnableEndRetry, consumerError);
+    }
+
+    @SuppressWarnings("java:S107")
+    private static void doAsyncGuarded(final Runnable guarded, final ScheduledExecutorService executor, final int count, final long delay, final Predicate<RuntimeException> retry, final Runnable runnableEndRetry, final Consumer<RuntimeException> consumerError) {
+        try {
+            guarded.run();
+        } catch (RuntimeException e) {
+            final boolean rejected = e instanceof CallNotPermittedException;
+            if (rejected || (retry != null && retry.test(e))) {
+                if (count > 0) {
+                    if (executor instanceof InstrumentedExecutor) {
+                        ((InstrumentedExecutor) executor).recordRetry();
+                    }
+                    final long wait = rejected ? Math.max(delay, TimeUnit.NANOSECONDS.toMillis(((CallNotPermittedException) e).getRetryAfterNanos() + 999_999)) : delay;
+                    doAsync(() -> doAsyncGuarded(guarded, executor, count - 1, delay, retry, runnableEndRetry, consumerError), executor, wait);
+                } else if (runnableEndRetry != null) {
+                    runnableEndRetry.run();
+                } else if (consumerError != null) {
+                    consumerError.accept(e);
+                } else {
+                    throw e;
+                }
+            } else if (consumerError != null) {
+                consumerError.accept(e);
+            } else {
+                throw e;
+            }
+        }
+    }
+
     /**
      * @param runnable
      * @param executor
@@ -22,6 +22,8 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 
+import org.flcit.commons.core.reflection.metadata.EnumMetadata;
+
 /**
  * 
  * @since 
@@ -45,7 +47,7 @@ public final class EnumUtils {
      * @return
      */
     public static <T extends Enum<T>> T[] convert(String[] array, Class<T[]> clazz) {
-        return convert(array, clazz, false);
+        return convert(array, clazz, false, false);
     }
 
     /**
@@ -55,22 +57,44 @@ public final class EnumUtils {
      * @return
      */
     public static <T extends Enum<T>> T[] convertOnToString(String[] array, Class<T[]> clazz) {
-        return convert(array, clazz, true);
+        return convert(array, clazz, true, false);
+    }
+
+    /**
+     * Unknown values are converted to null.
+     * @param <T>
+     * @param array
+     * @param clazz
+     * @return
+     */
+    public static <T extends Enum<T>> T[] convertSafe(String[] array, Class<T[]> clazz) {
+        return convert(array, clazz, false, true);
+    }
+
+    /**
+     * Unknown values are converted to null.
+     * @param <T>
+     * @param array
+     * @param clazz
+     * @return
+     */
+    public static <T extends Enum<T>> T[] convertSafeOnToString(String[] array, Class<T[]> clazz) {
+        return convert(array, clazz, true, true);
     }
 
     @SuppressWarnings({ "unchecked", "java:S1168" })
-    private static <T extends Enum<T>> T[] convert(String[] array, Class<T[]> clazz, boolean onToString) {
+    private static <T extends Enum<T>> T[] convert(String[] array, Class<T[]> clazz, boolean onToString, boolean safe) {
         if (ArrayUtils.isEmpty(array)
                 || clazz == null) {
             return null;
         }
+        final EnumMetadata<T> metadata = EnumMetadata.of((Class<T>) clazz.getComponentType());
         final T[] res = clazz.cast(Array.newInstance(clazz.getComponentType(), array.length));
         for (int i = 0; i < array.length; i++) {
             if (!StringUtils.hasLength(array[i])) {
                 continue;
             }
-            res[i] = onToString ? convertOnToString(array[i], (Class<T>) clazz.getComponentType())
-                    : Enum.valueOf((Class<T>) clazz.getComponentType(), array[i]);
+            res[i] = resolve(metadata, array[i], onToString, safe);
         }
         return res;
     }
@@ -82,7 +106,7 @@ public final class EnumUtils {
      * @return
      */
     public static <T extends Enum<T>> List<T> convert(List<String> array, Class<T> clazz) {
-        return convert(array, clazz, false);
+        return convert(array, clazz, false, false);
     }
 
     /**
@@ -92,25 +116,58 @@ public final class EnumUtils {
      * @return
      */
     public static <T extends Enum<T>> List<T> convertOnToString(List<String> array, Class<T> clazz) {
-        return convert(array, clazz, true);
+        return convert(array, clazz, true, false);
+    }
+
+    /**
+     * Unknown values are skipped.
+     * @param <T>
+     * @param array
+     * @param clazz
+     * @return
+     */
+    public static <T extends Enum<T>> List<T> convertSafe(List<String> array, Class<T> clazz) {
+        return convert(array, clazz, false, true);
+    }
+
+    /**
+     * Unknown values are skipped.
+     * @param <T>
+     * @param array
+     * @param clazz
+     * @return
+     */
+    public static <T extends Enum<T>> List<T> convertSafeOnToString(List<String> array, Class<T> clazz) {
+        return convert(array, clazz, true, true);
     }
 
     @SuppressWarnings("java:S1168")
-    private static <T extends Enum<T>> List<T> convert(List<String> array, Class<T> clazz, boolean onToString) {
+    private static <T extends Enum<T>> List<T> convert(List<String> array, Class<T> clazz, boolean onToString, boolean safe) {
         if (CollectionUtils.isEmpty(array) || clazz == null) {
             return null;
         }
+        final EnumMetadata<T> metadata = EnumMetadata.of(clazz);
         final List<T> res = new ArrayList<>(array.size());
         for (String val : array) {
             if (!StringUtils.hasLength(val)) {
                 continue;
             }
-            res.add(onToString ? convertOnToString(val, clazz)
-                    : Enum.valueOf(clazz, val));
+            final T v = resolve(metadata, val, onToString, safe);
+            if (v != null) {
+                res.add(v);
+            }
         }
         return res;
     }
 
+    private static <T extends Enum<T>> T resolve(EnumMetadata<T> metadata, String value, boolean onToString, boolean safe) {
+        final T v = onToString ? metadata.getByToString(value, false) : metadata.getByName(value, false);
+        if (v == null && !safe) {
+            throw new IllegalArgumentException((onToString ? "No enum toString " : "No enum constant ") + metadata.getType().getCanonicalName() + "." + value);
+        }
+        return v;
+    }
+
     /**
      * @param <T>
      * @param name
@@ -139,11 +196,11 @@ public final class EnumUtils {
      * @return
      */
     public static <T extends Enum<T>> T convertSafe(String name, Class<T> clazz, T defaultValue) {
-        try {
-            return convert(name, clazz);
-        } catch (IllegalArgumentException e) {
-            return defaultValue;
+        if (name == null) {
+            return null;
         }
+        final T v = EnumMetadata.of(clazz).getByName(name, false);
+        return v != null ? v : defaultValue;
     }
 
     /**
@@ -154,10 +211,9 @@ public final class EnumUtils {
      */
     public static <T extends Enum<?>> T convertOnToString(final String value, Class<T> clazz) {
         Assert.hasLength(value, MESSAGE_VALUE_NULL_OR_EMPTY);
-        for (T v : values(clazz)) {
-            if (value.equals(v.toString())) {
-                return v;
-            }
+        final T v = EnumMetadata.of(clazz).getByToString(value, false);
+        if (v != null) {
+            return v;
         }
         throw new IllegalArgumentException("No enum toString " + clazz.getCanonicalName() + "." + value);
     }
@@ -170,11 +226,9 @@ public final class EnumUtils {
      */
     public static <T extends Enum<?>> T convertOnNameOrToString(final String value, Class<T> clazz) {
         Assert.hasLength(value, MESSAGE_VALUE_NULL_OR_EMPTY);
-        for (T v : values(clazz)) {
-            if (value.equals(v.name())
-                    || value.equals(v.toString())) {
-                return v;
-            }
+        final T v = EnumMetadata.of(clazz).getByNameOrToString(value);
+        if (v != null) {
+            return v;
         }
         throw new IllegalArgumentException("No enum constant or toString " + clazz.getCanonicalName() + "." + value);
     }
@@ -189,12 +243,9 @@ public final class EnumUtils {
      */
     public static <T extends Enum<?>> T convert(final String value, final Field field, Class<T> clazz, boolean ignoreCase) {
         Assert.hasLength(value, MESSAGE_VALUE_NULL_OR_EMPTY);
-        for (T v : values(clazz)) {
-            final String val = ReflectionUtils.getFieldValue(v, field);
-            final boolean equal = ignoreCase ? value.equalsIgnoreCase(val) : value.equals(val);
-            if (equal) {
-                return v;
-            }
+        final T v = EnumMetadata.of(clazz).getByField(field, value, ignoreCase);
+        if (v != null) {
+            return v;
         }
         throw new IllegalArgumentException("No enum field " + clazz.getCanonicalName() + "." + field.getName() + "=" + value);
     }
@@ -217,11 +268,11 @@ public final class EnumUtils {
      * @return
      */
     public static <T extends Enum<?>> T convertSafeOnToString(final String value, Class<T> clazz, T defaultValue) {
-        try {
-            return value == null ? null : convertOnToString(value, clazz);
-        } catch (IllegalArgumentException e) {
-            return defaultValue;
+        if (value == null) {
+            return null;
         }
+        final T v = value.isEmpty() ? null : EnumMetadata.of(clazz).getByToString(value, false);
+        return v != null ? v : defaultValue;
     }
 
     /**
@@ -242,11 +293,11 @@ public final class EnumUtils {
      * @return
      */
     public static <T extends Enum<?>> T convertSafeOnNameOrToString(final String value, Class<T> clazz, T defaultValue) {
-        try {
-            return value == null ? null : convertOnNameOrToString(value, clazz);
-        } catch (IllegalArgumentException e) {
-            return defaultValue;
+        if (value == null) {
+            return null;
         }
+        final T v = value.isEmpty() ? null : EnumMetadata.of(clazz).getByNameOrToString(value);
+        return v != null ? v : defaultValue;
     }
 
     /**
@@ -254,11 +305,8 @@ public final class EnumUtils {
      * @param clazz
      * @return
      */
-    @SuppressWarnings("unchecked")
     public static <T extends Enum<?>> T[] values(Class<T> clazz) {
-        try {
-            return (T[]) clazz.getDeclaredMethod("values").invoke(null);
-        } catch (ReflectiveOperationException e) { throw new IllegalStateException(e); }
+        return EnumMetadata.of(clazz).values();
     }
 
     /**
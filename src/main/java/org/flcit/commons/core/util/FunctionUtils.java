@@ -16,11 +16,19 @@
 
 package org.flcit.commons.core.util;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.IntFunction;
 import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import org.flcit.commons.core.concurrent.BatchPipeline;
+import org.flcit.commons.core.concurrent.Retrier;
+import org.flcit.commons.core.concurrent.RetryPolicy;
+import org.flcit.commons.core.streaming.page.AdaptivePageSize;
 
 /**
  * 
@@ -64,6 +72,7 @@ public final class FunctionUtils {
     }
 
     /**
+     * Retries stop when the thread is interrupted: the last exception is rethrown, the interrupt flag kept.
      * @param <T>
      * @param supplier
      * @param maxRetry
@@ -72,23 +81,41 @@ public final class FunctionUtils {
      * @return
      */
     public static <T> T safeCall(Supplier<T> supplier, Integer maxRetry, Long delayRetry, Class<?>... exceptions) {
-        try {
-            return supplier.get();
-        } catch (Exception e) {
-            if ((exceptions != null && !ArrayUtils.contains(exceptions, e.getClass())) || maxRetry != null && maxRetry <= 0) {
-                throw e;
-            }
-            if (delayRetry != null && delayRetry > 0) {
-                try {
-                    Thread.sleep(delayRetry);
-                } catch (InterruptedException e1) {
-                    Thread.currentThread().interrupt();
+        Integer retry = maxRetry;
+        while (true) {
+            try {
+                return supplier.get();
+            } catch (Exception e) {
+                if ((exceptions != null && !ArrayUtils.contains(exceptions, e.getClass())) || retry != null && retry <= 0) {
+                    throw e;
                 }
+                if (delayRetry != null && delayRetry > 0) {
+                    try {
+                        Thread.sleep(delayRetry);
+                    } catch (InterruptedException e1) {
+                        Thread.currentThread().interrupt();
+                        throw e;
+                    }
+                } else if (Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                retry = retry != null ? retry - 1 : null;
             }
-            return safeCall(supplier, maxRetry != null ? --maxRetry : null, delayRetry, exceptions);
         }
     }
 
+    /**
+     * Asynchronous variant of {@link #safeCall(Supplier, Integer, Long, Class...)}: the retries are
+     * scheduled by the shared {@link Retrier} instead of sleeping on the caller thread.
+     * @param <T>
+     * @param supplier
+     * @param policy
+     * @return
+     */
+    public static <T> CompletableFuture<T> safeCallAsync(Supplier<T> supplier, RetryPolicy policy) {
+        return Retrier.getDefault().supply(supplier, policy);
+    }
+
     /**
      * @param <T>
      * @param size
@@ -97,12 +124,14 @@ public final class FunctionUtils {
      */
     public static <T> void list(int size, IntFunction<T[]> supplier, Consumer<T[]> consumer) {
         list(size, supplier, t -> {
-            consumer.accept(null);
+            consumer.accept(t);
             return null;
         });
     }
 
     /**
+     * The next batch is fetched once the consumer of the previous one reports its end (polled every 15 seconds);
+     * the iteration stops, keeping the interrupt flag, if the thread is interrupted while waiting. See {@link #list(int, IntFunction, Function, int)} to overlap the fetch and the processing.
      * @param <T>
      * @param size
      * @param supplier
@@ -112,12 +141,8 @@ public final class FunctionUtils {
         T[] cases;
         Supplier<Boolean> end = null;
         do {
-            while (end != null && BooleanUtils.isFalse(end.get())) {
-                try {
-                    Thread.sleep(15000);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
+            if (!awaitEnd(end)) {
+                return;
             }
             cases = supplier.apply(size);
             if (!ArrayUtils.isEmpty(cases)) {
@@ -126,6 +151,94 @@ public final class FunctionUtils {
         } while (!ArrayUtils.isEmpty(cases) && (size == -1 || cases.length == size));
     }
 
+    /**
+     * Same as {@link #list(int, IntFunction, Function)} run by a {@link BatchPipeline}: the next batches are fetched
+     * while the previous ones are processing, with at most {@code maxInFlight} batches processing and as many waiting,
+     * and the end of a batch is signalled by the completion of its stage instead of being polled.
+     * @param <T>
+     * @param size
+     * @param supplier
+     * @param consumer asynchronous processing of a batch
+     * @param maxInFlight
+     * @throws org.flcit.commons.core.exception.AggregateException if a fetch or a processing failed
+     */
+    public static <T> void list(int size, IntFunction<T[]> supplier, Function<T[], ? extends CompletionStage<?>> consumer, int maxInFlight) {
+        new BatchPipeline<>(size, supplier, consumer, maxInFlight, maxInFlight).run();
+    }
+
+    /**
+     * Same as {@link #list(int, IntFunction, Consumer)} with each batch size given by the adaptive policy,
+     * the iteration ends on the first batch smaller than requested.
+     * <p>No size estimate is recorded: the memory budget of the policy does not apply,
+     * see {@link #list(AdaptivePageSize, IntFunction, ToLongFunction, Function)}.
+     * @param <T>
+     * @param size
+     * @param supplier
+     * @param consumer
+     */
+    public static <T> void list(AdaptivePageSize size, IntFunction<T[]> supplier, Consumer<T[]> consumer) {
+        list(size, supplier, null, t -> {
+            consumer.accept(t);
+            return null;
+        });
+    }
+
+    /**
+     * Same as {@link #list(int, IntFunction, Function)} with each batch size given by the adaptive policy,
+     * the iteration ends on the first batch smaller than requested.
+     * @param <T>
+     * @param size
+     * @param supplier
+     * @param weigher estimated size in bytes of an element, required by a memory budget (may be null)
+     * @param consumer
+     */
+    public static <T> void list(AdaptivePageSize size, IntFunction<T[]> supplier, ToLongFunction<T> weigher, Function<T[], Supplier<Boolean>> consumer) {
+        T[] cases;
+        int requested;
+        long offset = 0;
+        Supplier<Boolean> end = null;
+        do {
+            if (!awaitEnd(end)) {
+                return;
+            }
+            requested = size.size();
+            final long start = System.nanoTime();
+            cases = supplier.apply(requested);
+            final int count = cases == null ? 0 : cases.length;
+            size.record(offset, requested, count, System.nanoTime() - start, weigh(cases, weigher));
+            offset += count;
+            if (!ArrayUtils.isEmpty(cases)) {
+                end = consumer.apply(cases);
+            }
+        } while (!ArrayUtils.isEmpty(cases) && cases.length >= requested);
+    }
+
+    /**
+     * @return false if interrupted while waiting (the interrupt flag is kept)
+     */
+    private static boolean awaitEnd(Supplier<Boolean> end) {
+        while (end != null && BooleanUtils.isFalse(end.get())) {
+            try {
+                Thread.sleep(15000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <T> long weigh(T[] cases, ToLongFunction<T> weigher) {
+        if (weigher == null || cases == null) {
+            return -1;
+        }
+        long bytes = 0;
+        for (T elem : cases) {
+            bytes += weigher.applyAsLong(elem);
+        }
+        return bytes;
+    }
+
     /**
      * @param <T>
      * @param supplier
@@ -0,0 +1,367 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.commons.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Parallel operations over arrays, lists and iterables with a bounded parallelism:
+ * the elements are split in chunks claimed by at most {@code parallelism} workers
+ * ({@code parallelism - 1} tasks submitted to the executor, the calling thread being the last one),
+ * so the number of submitted tasks does not depend on the number of elements.
+ * <p>The calls wait for the end of the work, i.e. for the workers which started: a task still queued
+ * when the calling thread has finished its own work exits without running, so nested calls
+ * on a bounded executor cannot deadlock. The first error stops the workers
+ * (the chunks not yet claimed are not processed) and is thrown.
+ * <p>The calling thread waits only once every chunk has been claimed, so an interrupt while waiting
+ * abandons no work: the wait goes on and the interrupt flag is kept.
+ *
+ * @since 
+ * @author Florian Lestic
+ */
+public final class ParallelUtils {
+
+    private static final int CHUNKS_PER_WORKER = 4;
+    private static final int DEFAULT_ITERABLE_CHUNK = 64;
+    private static final int CLOSED = 1 << 30;
+
+    private ParallelUtils() { }
+
+    /**
+     * @param <T>
+     * @param array
+     * @param consumer
+     * @param executor
+     * @param parallelism
+     */
+    public static <T> void forEach(T[] array, Consumer<? super T> consumer, Executor executor, int parallelism) {
+        forEach(Arrays.asList(array), consumer, executor, parallelism);
+    }
+
+    /**
+     * @param <T>
+     * @param list
+     * @param consumer
+     * @param executor
+     * @param parallelism
+     */
+    public static <T> void forEach(List<T> list, Consumer<? super T> consumer, Executor executor, int parallelism) {
+        final List<T> values = randomAccess(list);
+        forEachIndex(values.size(), i -> consumer.accept(values.get(i)), executor, parallelism);
+    }
+
+    /**
+     * @param <T>
+     * @param iterable
+     * @param consumer
+     * @param executor
+     * @param parallelism
+     */
+    public static <T> void forEach(Iterable<T> iterable, Consumer<? super T> consumer, Executor executor, int parallelism) {
+        chunks(iterable, parallelism, executor, (index, chunk) -> {
+            for (T value : chunk) {
+                consumer.accept(value);
+            }
+        });
+    }
+
+    /**
+     * @param <T>
+     * @param <R>
+     * @param array
+     * @param function
+     * @param executor
+     * @param parallelism
+     * @return the results in the order of the elements
+     */
+    public static <T, R> List<R> map(T[] array, Function<? super T, R> function, Executor executor, int parallelism) {
+        return map(Arrays.asList(array), function, executor, parallelism);
+    }
+
+    /**
+     * @param <T>
+     * @param <R>
+     * @param list
+     * @param function
+     * @param executor
+     * @param parallelism
+     * @return the results in the order of the elements
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, R> List<R> map(List<T> list, Function<? super T, R> function, Executor executor, int parallelism) {
+        final List<T> values = randomAccess(list);
+        final Object[] results = new Object[values.size()];
+        forEachIndex(values.size(), i -> results[i] = function.apply(values.get(i)), executor, parallelism);
+        return new ArrayList<>((List<R>) Arrays.asList(results));
+    }
+
+    /**
+     * @param <T>
+     * @param <R>
+     * @param iterable
+     * @param function
+     * @param executor
+     * @param parallelism
+     * @param ordered if false, the results are in the order of completion of the chunks
+     * @return
+     */
+    public static <T, R> List<R> map(Iterable<T> iterable, Function<? super T, R> function, Executor executor, int parallelism, boolean ordered) {
+        final Map<Integer, List<R>> results = new ConcurrentHashMap<>();
+        final List<List<R>> completed = ordered ? null : new ArrayList<>();
+        chunks(iterable, parallelism, executor, (index, chunk) -> {
+            final List<R> res = new ArrayList<>(chunk.size());
+            for (T value : chunk) {
+                res.add(function.apply(value));
+            }
+            if (ordered) {
+                results.put(index, res);
+            } else {
+                synchronized (completed) {
+                    completed.add(res);
+                }
+            }
+        });
+        final List<R> res = new ArrayList<>();
+        if (ordered) {
+            for (int i = 0; i < results.size(); i++) {
+                res.addAll(results.get(i));
+            }
+        } else {
+            completed.forEach(res::addAll);
+        }
+        return res;
+    }
+
+    /**
+     * Each chunk is reduced from the identity with the accumulator, then the results of the chunks
+     * are combined in the order of the elements.
+     * @param <T>
+     * @param <R>
+     * @param list
+     * @param identity
+     * @param accumulator
+     * @param combiner
+     * @param executor
+     * @param parallelism
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, R> R reduce(List<T> list, R identity, BiFunction<R, ? super T, R> accumulator, BinaryOperator<R> combiner, Executor executor, int parallelism) {
+        final List<T> values = randomAccess(list);
+        final int chunk = chunkSize(values.size(), parallelism);
+        final int chunks = (values.size() + chunk - 1) / chunk;
+        final Object[] partials = new Object[chunks];
+        forEachChunk(chunks, c -> {
+            R res = identity;
+            for (int i = c * chunk, end = Math.min(values.size(), i + chunk); i < end; i++) {
+                res = accumulator.apply(res, values.get(i));
+            }
+            partials[c] = res;
+        }, executor, Math.min(parallelism, chunks));
+        R res = identity;
+        for (Object partial : partials) {
+            res = combiner.apply(res, (R) partial);
+        }
+        return res;
+    }
+
+    /**
+     * @param <T>
+     * @param <R>
+     * @param array
+     * @param identity
+     * @param accumulator
+     * @param combiner
+     * @param executor
+     * @param parallelism
+     * @return
+     * @see #reduce(List, Object, BiFunction, BinaryOperator, Executor, int)
+     */
+    public static <T, R> R reduce(T[] array, R identity, BiFunction<R, ? super T, R> accumulator, BinaryOperator<R> combiner, Executor executor, int parallelism) {
+        return reduce(Arrays.asList(array), identity, accumulator, combiner, executor, parallelism);
+    }
+
+    /**
+     * @param <T>
+     * @param <R>
+     * @param iterable
+     * @param identity
+     * @param accumulator
+     * @param combiner
+     * @param executor
+     * @param parallelism
+     * @return
+     * @see #reduce(List, Object, BiFunction, BinaryOperator, Executor, int)
+     */
+    public static <T, R> R reduce(Iterable<T> iterable, R identity, BiFunction<R, ? super T, R> accumulator, BinaryOperator<R> combiner, Executor executor, int parallelism) {
+        final Map<Integer, R> partials = Collections.synchronizedMap(new HashMap<>());
+        chunks(iterable, parallelism, executor, (index, chunk) -> {
+            R res = identity;
+            for (T value : chunk) {
+                res = accumulator.apply(res, value);
+            }
+            partials.put(index, res);
+        });
+        R res = identity;
+        for (int i = 0; i < partials.size(); i++) {
+            res = combiner.apply(res, partials.get(i));
+        }
+        return res;
+    }
+
+    private static <T> List<T> randomAccess(List<T> list) {
+        return list instanceof RandomAccess ? list : new ArrayList<>(list);
+    }
+
+    private static int chunkSize(int size, int parallelism) {
+        return Math.max(1, size / (Math.max(1, parallelism) * CHUNKS_PER_WORKER));
+    }
+
+    private static void forEachIndex(int size, IntConsumer consumer, Executor executor, int parallelism) {
+        if (size == 0) {
+            return;
+        }
+        final int chunk = chunkSize(size, parallelism);
+        final int chunks = (size + chunk - 1) / chunk;
+        forEachChunk(chunks, c -> {
+            for (int i = c * chunk, end = Math.min(size, i + chunk); i < end; i++) {
+                consumer.accept(i);
+            }
+        }, executor, Math.min(parallelism, chunks));
+    }
+
+    private static void forEachChunk(int chunks, IntConsumer consumer, Executor executor, int workers) {
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        execute(() -> {
+            int c;
+            while (error.get() == null && (c = next.getAndIncrement()) < chunks) {
+                consumer.accept(c);
+            }
+        }, executor, workers, error);
+    }
+
+    private static <T> void chunks(Iterable<T> iterable, int parallelism, Executor executor, ChunkConsumer<T> consumer) {
+        final int chunk = iterable instanceof Collection ? chunkSize(((Collection<?>) iterable).size(), parallelism) : DEFAULT_ITERABLE_CHUNK;
+        final Iterator<T> iterator = iterable.iterator();
+        final int[] next = new int[1];
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        execute(() -> {
+            while (error.get() == null) {
+                final List<T> values = new ArrayList<>(chunk);
+                final int index;
+                synchronized (iterator) {
+                    while (values.size() < chunk && iterator.hasNext()) {
+                        values.add(iterator.next());
+                    }
+                    index = next[0]++;
+                }
+                if (values.isEmpty()) {
+                    return;
+                }
+                consumer.accept(index, values);
+            }
+        }, executor, parallelism, error);
+    }
+
+    private static void execute(Runnable worker, Executor executor, int workers, AtomicReference<Throwable> error) {
+        // number of workers which entered, with the CLOSED bit once the calling thread ended its worker
+        final AtomicInteger entered = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(1);
+        for (int i = 1; i < workers; i++) {
+            try {
+                executor.execute(() -> {
+                    if (!enter(entered)) {
+                        return;
+                    }
+                    try {
+                        run(worker, error);
+                    } finally {
+                        if (entered.decrementAndGet() == CLOSED) {
+                            done.countDown();
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) { /* DO NOTHING */ }
+        }
+        run(worker, error);
+        // the worker of the calling thread returned: every chunk is claimed (or an error stopped the work), only the started workers are awaited
+        boolean interrupted = false;
+        if (entered.getAndAdd(CLOSED) != 0) {
+            while (done.getCount() > 0) {
+                try {
+                    done.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        final Throwable e = error.get();
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        } else if (e != null) {
+            throw (Error) e;
+        }
+    }
+
+    private static boolean enter(AtomicInteger entered) {
+        int state;
+        do {
+            state = entered.get();
+            if (state >= CLOSED) {
+                return false;
+            }
+        } while (!entered.compareAndSet(state, state + 1));
+        return true;
+    }
+
+    private static void run(Runnable worker, AtomicReference<Throwable> error) {
+        try {
+            worker.run();
+        } catch (RuntimeException | Error e) {
+            error.compareAndSet(null, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkConsumer<T> {
+        void accept(int index, List<T> chunk);
+    }
+
+}
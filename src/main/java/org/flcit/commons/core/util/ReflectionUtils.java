@@ -23,12 +23,15 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.math.BigInteger;
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
+import org.flcit.commons.core.reflection.accessor.PropertyAccessor;
+import org.flcit.commons.core.reflection.converter.ConverterRegistry;
+import org.flcit.commons.core.reflection.mapper.BeanMapper;
+import org.flcit.commons.core.reflection.metadata.AnnotationAttribute;
+import org.flcit.commons.core.reflection.metadata.ClassMetadata;
+
 /**
  * 
  * @since 
@@ -38,9 +41,6 @@ public final class ReflectionUtils {
 
     private static final Class<?>[] EMPTY_CLASS_ARRAY = new Class<?>[0];
     private static final Object[] EMPTY_OBJECT_ARRAY = new Object[0];
-    private static final String SET = "set";
-    private static final String GET = "get";
-    private static final String IS = "is";
     private static final String ACCESS_ERROR_MESSAGE = "Could not access method or field: ";
 
     private ReflectionUtils() { }
@@ -71,17 +71,7 @@ public final class ReflectionUtils {
      */
     public static Field findField(Class<?> clazz, String name, Class<?> type) {
         Assert.notNull(clazz, "Class must not be null");
-        Class<?> searchType = clazz;
-        while (Object.class != searchType && searchType != null) {
-            for (Field field : searchType.getDeclaredFields()) {
-                if ((name == null || name.equals(field.getName())) &&
-                        (type == null || type.equals(field.getType()))) {
-                    return field;
-                }
-            }
-            searchType = searchType.getSuperclass();
-        }
-        return null;
+        return ClassMetadata.of(clazz).findField(name, type);
     }
 
     /**
@@ -172,16 +162,7 @@ public final class ReflectionUtils {
      */
     @SuppressWarnings("unchecked")
     public static <T> T getFieldValue(final Object target, final Field field) {
-        return field == null || target == null ? null : (T) getSafeFieldIntern(makeAccessible(field), target);
-    }
-
-    private static Object getSafeFieldIntern(Field field, Object target) {
-        try {
-            return field.get(target);
-        }
-        catch (IllegalAccessException ex) {
-            throw new IllegalStateException(ACCESS_ERROR_MESSAGE + ex.getMessage());
-        }
+        return field == null || target == null ? null : (T) PropertyAccessor.of(field).get(target);
     }
 
     /**
@@ -228,7 +209,7 @@ public final class ReflectionUtils {
      */
     public static <T> void setFieldValue(final Object target, final Field field, final T value) {
         if (field != null && target != null) {
-            setField(makeAccessible(field), target, value);
+            PropertyAccessor.of(field).set(target, value);
         }
     }
 
@@ -247,22 +228,6 @@ public final class ReflectionUtils {
         }
     }
 
-    private static Field makeAccessible(final Field field) {
-        if (field != null) {
-            makeAccessibleIntern(field);
-        }
-        return field;
-    }
-
-    @SuppressWarnings("java:S3011")
-    private static void makeAccessibleIntern(Field field) {
-        if ((!Modifier.isPublic(field.getModifiers()) ||
-                !Modifier.isPublic(field.getDeclaringClass().getModifiers()) ||
-                Modifier.isFinal(field.getModifiers())) && !field.isAccessible()) {
-            field.setAccessible(true);
-        }
-    }
-
     /**
      * @param target
      * @param name
@@ -306,7 +271,7 @@ public final class ReflectionUtils {
      * @return
      */
     public static Method getterMethod(final Class<?> clazz, final Field field) {
-        return field != null ? findMethod(clazz, getterMethodName(field)) : null;
+        return field != null ? ClassMetadata.of(clazz).getter(field) : null;
     }
 
     /**
@@ -334,23 +299,7 @@ public final class ReflectionUtils {
      * @return
      */
     public static Method setterMethod(final Class<?> clazz, final Field field) {
-        return field != null ? findMethod(clazz, setterMethodName(field), field.getType()) : null;
-    }
-
-    private static String getterMethodName(Field field) {
-        return getterMethodName(field.getName(), field.getType());
-    }
-
-    private static String getterMethodName(String field, Class<?> type) {
-        return (boolean.class == type ? IS : GET) + Character.toUpperCase(field.charAt(0)) + field.substring(1);
-    }
-
-    private static String setterMethodName(Field field) {
-        return setterMethodName(field.getName());
-    }
-
-    private static String setterMethodName(String field) {
-        return SET + Character.toUpperCase(field.charAt(0)) + field.substring(1);
+        return field != null ? ClassMetadata.of(clazz).setter(field) : null;
     }
 
     /**
@@ -399,14 +348,7 @@ public final class ReflectionUtils {
     public static Method findMethod(Class<?> clazz, String name, Class<?>... paramTypes) {
         Assert.notNull(clazz, "Class must not be null");
         Assert.notNull(name, "Method name must not be null");
-        Class<?> searchType = clazz;
-        while (searchType != null && searchType != Object.class) {
-            try {
-                return searchType.getDeclaredMethod(name, paramTypes);
-            } catch (NoSuchMethodException e) { /* DO NOTHING */ }
-            searchType = searchType.getSuperclass();
-        }
-        return null;
+        return ClassMetadata.of(clazz).findMethod(name, paramTypes);
     }
 
     /**
@@ -513,7 +455,14 @@ public final class ReflectionUtils {
      * @throws ReflectiveOperationException
      */
     public static Object getAnnotationValue(Annotation annotation, String name) throws ReflectiveOperationException {
-        return annotation != null && StringUtils.hasLength(name) ? annotation.annotationType().getMethod(name).invoke(annotation) : null;
+        if (annotation == null || !StringUtils.hasLength(name)) {
+            return null;
+        }
+        final AnnotationAttribute attribute = AnnotationAttribute.of(annotation.annotationType(), name);
+        if (attribute == null) {
+            throw new NoSuchMethodException(annotation.annotationType().getName() + "." + name + "()");
+        }
+        return attribute.get(annotation);
     }
 
     /**
@@ -523,7 +472,11 @@ public final class ReflectionUtils {
      * @throws ReflectiveOperationException
      */
     public static Field getField(Class<?> clazz, String name) throws ReflectiveOperationException {
-        return clazz.getDeclaredField(name);
+        final Field field = ClassMetadata.of(clazz).getDeclaredField(name);
+        if (field == null) {
+            throw new NoSuchFieldException(name);
+        }
+        return field;
     }
 
     /**
@@ -533,12 +486,8 @@ public final class ReflectionUtils {
      * @return
      */
     public static <T extends Annotation> Field getFirstFieldWithAnnotation(Class<?> clazz, Class<T> annotationClass) {
-        for (Field field : clazz.getDeclaredFields()) {
-            if (isAnnotationPresent(field, annotationClass)) {
-                return field;
-            }
-        }
-        return null;
+        final Field[] fields = ClassMetadata.of(clazz).getDeclaredFieldsWithAnnotation(annotationClass);
+        return fields.length == 0 ? null : fields[0];
     }
 
     /**
@@ -550,19 +499,7 @@ public final class ReflectionUtils {
      * @return
      */
     public static <T extends Annotation> Field getFirstFieldWithAnnotationAndValue(Class<?> clazz, Class<T> annotationClass, String name, Object value) {
-        for (Field field : clazz.getDeclaredFields()) {
-            final T annotation = getAnnotation(field, annotationClass);
-            if (annotation == null) {
-                continue;
-            }
-            try {
-                if (value.equals(getAnnotationValue(annotation, name))) {
-                    return field;
-                }
-            } catch (ReflectiveOperationException e) { /* DO NOTHING */ }
-
-        }
-        return null;
+        return StringUtils.hasLength(name) ? ClassMetadata.of(clazz).getDeclaredFieldWithAnnotationValue(annotationClass, name, value) : null;
     }
 
     /**
@@ -581,7 +518,7 @@ public final class ReflectionUtils {
      */
     public static int countValueNotNull(Object object) {
         int res = 0;
-        for (Field field: object.getClass().getDeclaredFields()) {
+        for (Field field: ClassMetadata.of(object.getClass()).getDeclaredFields()) {
             res += getFieldValue(object, field) != null ? 1 : 0;
         }
         return res;
@@ -605,33 +542,24 @@ public final class ReflectionUtils {
      * @param annotationNameField
      * @return
      */
-    @SuppressWarnings("java:S1168")
+    @SuppressWarnings({ "unchecked", "java:S1168" })
     public static Map<String, Object> toMap(Object object, boolean nullValue, boolean emptyValue, Class<? extends Annotation> annotationNameClass, String annotationNameField) {
         if (object == null) {
             return null;
         }
-        final Map<String, Object> result = new HashMap<>();
-        toMap(result, object, object.getClass(), nullValue, emptyValue, annotationNameClass, annotationNameField);
-        Class<?> clazz = object.getClass();
-        while ((clazz = clazz.getSuperclass()) != Object.class) {
-            toMap(result, object, clazz, nullValue, emptyValue, annotationNameClass, annotationNameField);
-        }
-        return result;
+        return ((BeanMapper<Object>) BeanMapper.of(object.getClass(), annotationNameClass, annotationNameField)).toMap(object, nullValue, emptyValue);
     }
 
-    @SuppressWarnings("java:S1168")
-    private static Map<String, Object> toMap(final Map<String, Object> result, Object object, Class<?> clazz, boolean nullValue, boolean emptyValue, Class<? extends Annotation> annotationNameClass, String annotationNameField) {
-        if (object == null) {
-            return null;
-        }
-        doWithFields(clazz, field -> {
-            final Object value = getFieldValue(object, field);
-            if ((nullValue || value != null)
-                    && (emptyValue || !ObjectUtils.isEmpty(value))) {
-                result.put(getName(field, annotationNameClass, annotationNameField), value);
-            }
-        });
-        return result;
+    /**
+     * @param <T>
+     * @param map
+     * @param clazz
+     * @param annotationNameClass
+     * @param annotationNameField
+     * @return
+     */
+    public static <T> T fromMap(Map<String, ?> map, Class<T> clazz, Class<? extends Annotation> annotationNameClass, String annotationNameField) {
+        return BeanMapper.of(clazz, annotationNameClass, annotationNameField).fromMap(map);
     }
 
     /**
@@ -639,17 +567,7 @@ public final class ReflectionUtils {
      * @return
      */
     public static String[] getAllFieldsName(Class<?> clazz) {
-        final List<String> fieldsName = new ArrayList<>();
-        doWithFields(clazz, ReflectionUtils::getName);
-        return fieldsName.toArray(new String[0]);
-    }
-
-    private static String getName(Field field) {
-        return field.getName();
-    }
-
-    private static String getName(Field field, Class<? extends Annotation> annotationClass, String annotationField) {
-        return (String) ObjectUtils.getOrDefault(getSafeAnnotationValue(field.getAnnotation(annotationClass), annotationField), field.getName());
+        return ClassMetadata.of(clazz).getFieldNames().clone();
     }
 
     /**
@@ -658,27 +576,8 @@ public final class ReflectionUtils {
      * @param clazz
      * @return
      */
-    @SuppressWarnings("unchecked")
     public static <T> T convert(Object value, Class<T> clazz) {
-        if (value == null || clazz == null || clazz.isAssignableFrom(value.getClass())) {
-            return (T) value;
-        }
-        if (clazz.isPrimitive()) {
-            clazz = (Class<T>) ClassUtils.objectClass(clazz);
-        }
-        try {
-            return clazz.getDeclaredConstructor(value.getClass()).newInstance(value);
-        } catch (ReflectiveOperationException e) {
-            try {
-                return (T) clazz.getDeclaredMethod("valueOf", value.getClass());
-            } catch (ReflectiveOperationException e1) {
-                return null;
-            }
-        }
-    }
-
-    private static void doWithFields(Class<?> clazz, FieldCallback fc) {
-        doWithFields(clazz, fc, null);
+        return ConverterRegistry.getDefault().convert(value, clazz);
     }
 
     /**
@@ -687,23 +586,17 @@ public final class ReflectionUtils {
      * @param ff
      */
     public static void doWithFields(Class<?> clazz, FieldCallback fc, FieldFilter ff) {
-        Class<?> targetClass = clazz;
-        do {
-            Field[] fields = targetClass.getDeclaredFields();
-            for (Field field : fields) {
-                if (ff != null && !ff.matches(field)) {
-                    continue;
-                }
-                try {
-                    fc.doWith(field);
-                }
-                catch (IllegalAccessException ex) {
-                    throw new IllegalStateException("Not allowed to access field '" + field.getName() + "': " + ex);
-                }
+        for (Field field : ClassMetadata.of(clazz).getFields()) {
+            if (ff != null && !ff.matches(field)) {
+                continue;
+            }
+            try {
+                fc.doWith(field);
+            }
+            catch (IllegalAccessException ex) {
+                throw new IllegalStateException("Not allowed to access field '" + field.getName() + "': " + ex);
             }
-            targetClass = targetClass.getSuperclass();
         }
-        while (targetClass != null && targetClass != Object.class);
     }
 
     @FunctionalInterface
@@ -176,6 +176,7 @@ public final class StringUtils {
                 buf.append(c);
             }
         }
+        buf.flip();
         return buf.toString();
     }
 
@@ -194,6 +195,7 @@ public final class StringUtils {
                 buf.append(c);
             }
         }
+        buf.flip();
         return buf.toString();
     }
 